@@ -0,0 +1,103 @@
+package gg.pigraid.discordlink.api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import gg.pigraid.accountadapter.models.AccountDto;
+import gg.pigraid.discordlink.api.models.GenerateCodeRequest;
+import gg.pigraid.discordlink.api.models.GenerateCodeResponse;
+import gg.pigraid.discordlink.api.models.LinkedAccount;
+import gg.pigraid.discordlink.api.models.UnlinkRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request serialization and response parsing as done by DiscordLinkServiceClient
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+    private static final String GENERATE_CODE_RESPONSE = "{\"success\":true,\"code\":\"A7B3C9\","
+        + "\"expiresAt\":\"2026-10-17T12:05:00Z\",\"expiresInSeconds\":300,\"error\":null,"
+        + "\"message\":\"Verification code generated\"}";
+
+    // Shape of a typical AccountService account, including fields the plugin does not map
+    private static final String ACCOUNT = "{\"id\":\"6f1c2d7e-8a43-4b0f-9a51-3c2e1d0f7b64\",\"xuid\":\"2535412345678901\","
+        + "\"username\":\"PigraidPlayer\",\"createdAt\":\"2025-03-14T09:26:53Z\",\"lastSeenAt\":\"2026-10-17T11:58:02Z\","
+        + "\"settings\":{\"language\":\"en_US\",\"notifications\":true,\"privacy\":\"friends\","
+        + "\"discordLink\":{\"discordId\":\"112233445566778899\",\"discordUsername\":\"pigraider\","
+        + "\"discordDisplayName\":\"Pig Raider\",\"linkedAt\":\"2026-01-02T18:00:00Z\"}},"
+        + "\"stats\":{\"gamesPlayed\":1287,\"wins\":342,\"kills\":5120,\"deaths\":4011,\"playtimeSeconds\":1834200},"
+        + "\"roles\":[\"player\",\"supporter\"],\"flags\":[]}";
+
+    private Gson gson;
+    private TypeAdapter<GenerateCodeResponse> generateCodeResponseAdapter;
+    private TypeAdapter<AccountDto> accountAdapter;
+    private TypeAdapter<LinkedAccount> linkedAccountAdapter;
+
+    @Setup
+    public void setup() {
+        gson = new Gson();
+        generateCodeResponseAdapter = gson.getAdapter(GenerateCodeResponse.class);
+        accountAdapter = gson.getAdapter(AccountDto.class);
+        linkedAccountAdapter = gson.getAdapter(LinkedAccount.class);
+    }
+
+    @Benchmark
+    public String serializeGenerateCodeRequest() {
+        return gson.toJson(new GenerateCodeRequest("2535412345678901", "PigraidPlayer"));
+    }
+
+    @Benchmark
+    public String serializeUnlinkRequest() {
+        return gson.toJson(new UnlinkRequest("112233445566778899"));
+    }
+
+    @Benchmark
+    public GenerateCodeResponse parseGenerateCodeResponseFromJson() {
+        return gson.fromJson(GENERATE_CODE_RESPONSE, GenerateCodeResponse.class);
+    }
+
+    @Benchmark
+    public GenerateCodeResponse parseGenerateCodeResponseStreaming() throws IOException {
+        return generateCodeResponseAdapter.read(lenientReader(GENERATE_CODE_RESPONSE));
+    }
+
+    @Benchmark
+    public AccountDto parseAccountFromJson() {
+        return gson.fromJson(ACCOUNT, AccountDto.class);
+    }
+
+    @Benchmark
+    public AccountDto parseAccountStreaming() throws IOException {
+        return accountAdapter.read(lenientReader(ACCOUNT));
+    }
+
+    // What the client decodes: only xuid and settings.discordLink
+    @Benchmark
+    public LinkedAccount parseLinkedAccountStreaming() throws IOException {
+        return linkedAccountAdapter.read(lenientReader(ACCOUNT));
+    }
+
+    private JsonReader lenientReader(String json) {
+        JsonReader reader = gson.newJsonReader(new StringReader(json));
+        reader.setLenient(true);
+        return reader;
+    }
+}
@@ -0,0 +1,41 @@
+package gg.pigraid.discordlink.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one AccountService call in ServiceMetrics (budget: ~100 ns)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+    private final ServiceMetrics metrics = new ServiceMetrics();
+
+    @Benchmark
+    public void recordSingleThread() {
+        metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, ServiceMetrics.Outcome.SUCCESS,
+            ThreadLocalRandom.current().nextLong(50_000_000));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, ServiceMetrics.Outcome.SUCCESS,
+            ThreadLocalRandom.current().nextLong(50_000_000));
+    }
+}
@@ -0,0 +1,81 @@
+package gg.pigraid.discordlink.forms;
+
+import gg.pigraid.discordlink.i18n.BenchmarkLanguages;
+import gg.pigraid.discordlink.i18n.MessageTemplates;
+import gg.pigraid.waterdogi18n.WaterdogI18n;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xxAROX.WDForms.forms.types.MenuForm;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Link code form content: building it per send (as before) against filling
+ * in a pre-rendered skeleton. Run with -prof gc to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkFormBenchmark {
+    private static final String DISCORD_URL = "https://discord.gg/pigraid";
+    private static final String BOT_CHANNEL = "#bot-commands";
+
+    private WaterdogI18n i18n;
+    private LinkFormTemplates.Skeleton skeleton;
+    private int expiresInSeconds = 297;
+
+    @Setup
+    public void setup() {
+        File langFolder = BenchmarkLanguages.extract();
+        i18n = BenchmarkLanguages.load(langFolder);
+        skeleton = LinkFormTemplates.render(new MessageTemplates(i18n), DISCORD_URL, BOT_CHANNEL, "en_US");
+    }
+
+    /**
+     * The content building LinkForms did on every send before skeletons
+     */
+    @Benchmark
+    public String perSendContent() {
+        String code = "A7B3C9";
+        String expiryText;
+        if (expiresInSeconds >= 60) {
+            expiryText = expiresInSeconds / 60 + "m " + expiresInSeconds % 60 + "s";
+        } else {
+            expiryText = expiresInSeconds + "s";
+        }
+
+        StringBuilder content = new StringBuilder();
+        content.append("§l§6").append(code).append("§r\n\n");
+        content.append(i18n.tr("en_US", "link.form.instructions", code)).append("\n\n");
+        content.append(i18n.tr("en_US", "link.form.channel", BOT_CHANNEL)).append("\n");
+        content.append(i18n.tr("en_US", "link.form.expires", expiryText)).append("\n\n");
+        content.append("§7").append(DISCORD_URL);
+        return content.toString() + i18n.tr("en_US", "link.form.title") + i18n.tr("en_US", "forms.button.ok");
+    }
+
+    @Benchmark
+    public String skeletonContent() {
+        return skeleton.renderContent("A7B3C9", LinkForms.formatExpiry(expiresInSeconds))
+            + skeleton.getTitle() + skeleton.getButtonText();
+    }
+
+    /**
+     * The whole form as LinkForms sends it: only the MenuForm and its content are new per send
+     */
+    @Benchmark
+    public MenuForm skeletonForm() {
+        return LinkForms.buildLinkCodeForm(skeleton, "A7B3C9", expiresInSeconds);
+    }
+}
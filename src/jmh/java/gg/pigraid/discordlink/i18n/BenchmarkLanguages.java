@@ -0,0 +1,49 @@
+package gg.pigraid.discordlink.i18n;
+
+import gg.pigraid.waterdogi18n.WaterdogI18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+/**
+ * Loads the plugin's real language files for benchmarks
+ */
+public final class BenchmarkLanguages {
+    private static final Path SOURCE = Path.of("src", "main", "resources", "language");
+
+    private BenchmarkLanguages() {
+    }
+
+    /**
+     * Copy the bundled .lang files to a temporary folder
+     */
+    public static File extract() {
+        try {
+            Path folder = Files.createTempDirectory("discordlink-jmh-lang");
+            try (Stream<Path> files = Files.list(SOURCE)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".lang"))::iterator) {
+                    Files.copy(file, folder.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            folder.toFile().deleteOnExit();
+            return folder.toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return WaterdogI18n loaded the same way DiscordLinkPlugin does (without AccountAdapter)
+     */
+    public static WaterdogI18n load(File langFolder) {
+        WaterdogI18n i18n = new WaterdogI18n("DiscordLink", langFolder, null);
+        i18n.loadAllLanguages();
+        i18n.setDefaultLanguage("en_US");
+        return i18n;
+    }
+}
@@ -0,0 +1,75 @@
+package gg.pigraid.discordlink.i18n;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message language lookup: client data JSON (the old getPlayerLanguage)
+ * against the per-session cache, plus locale normalization and fallback
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LanguageResolutionBenchmark {
+    // Trimmed Bedrock client data as it appears in the login chain
+    private static final String CLIENT_DATA = "{\"ArmSize\":\"wide\",\"ClientRandomId\":-3482910348291034,"
+        + "\"CompatibleWithClientSideChunkGen\":false,\"CurrentInputMode\":2,\"DefaultInputMode\":2,"
+        + "\"DeviceId\":\"4f9c2a1e-7b3d-4e8a-9c0f-1d2e3f4a5b6c\",\"DeviceModel\":\"SM-G991B\",\"DeviceOS\":1,"
+        + "\"GameVersion\":\"1.21.40\",\"GuiScale\":-1,\"IsEditorMode\":false,\"LanguageCode\":\"en_AU\","
+        + "\"MaxViewDistance\":16,\"MemoryTier\":3,\"OverrideSkin\":false,\"PlatformType\":1,"
+        + "\"PlayFabId\":\"a1b2c3d4e5f60718\",\"PremiumSkin\":false,\"PersonaSkin\":true,"
+        + "\"SelfSignedId\":\"0d7e1b2c-3a4f-5e6d-7c8b-9a0f1e2d3c4b\",\"ServerAddress\":\"play.pigraid.gg:19132\","
+        + "\"SkinId\":\"c18e65aa-7b21-4637-9b63-8ad63622ef01.Custom\",\"ThirdPartyName\":\"PigraidPlayer\","
+        + "\"TrustedSkin\":true,\"UIProfile\":0}";
+
+    private JsonObject clientData;
+    private LocaleResolver resolver;
+    private final ConcurrentHashMap<String, String> sessionLanguages = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setup() {
+        clientData = JsonParser.parseString(CLIENT_DATA).getAsJsonObject();
+        resolver = new LocaleResolver(Set.of("de_DE", "en_US", "es_ES", "fr_FR", "ja_JP", "pt_BR", "zh_CN"), "en_US");
+        sessionLanguages.put("2535412345678901", resolver.resolve("en_AU"));
+    }
+
+    @Benchmark
+    public String clientDataLookup() {
+        if (clientData.has("LanguageCode")) {
+            return clientData.get("LanguageCode").getAsString();
+        }
+        return "en_US";
+    }
+
+    @Benchmark
+    public String sessionCacheLookup() {
+        return sessionLanguages.get("2535412345678901");
+    }
+
+    @Benchmark
+    public String resolveMemoized() {
+        return resolver.resolve("en_AU");
+    }
+
+    @Benchmark
+    public String normalize() {
+        return LocaleResolver.normalize("EN-au");
+    }
+}
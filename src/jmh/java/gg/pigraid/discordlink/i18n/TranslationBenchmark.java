@@ -0,0 +1,58 @@
+package gg.pigraid.discordlink.i18n;
+
+import gg.pigraid.waterdogi18n.WaterdogI18n;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WaterdogI18n.tr() against the compiled MessageTemplates
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranslationBenchmark {
+    private WaterdogI18n i18n;
+    private MessageTemplates messages;
+
+    @Setup
+    public void setup() {
+        File langFolder = BenchmarkLanguages.extract();
+        i18n = BenchmarkLanguages.load(langFolder);
+        messages = new MessageTemplates(i18n);
+        messages.precompile(langFolder);
+    }
+
+    @Benchmark
+    public String i18nNoArgs() {
+        return i18n.tr("en_US", "link.command.generating");
+    }
+
+    @Benchmark
+    public String templatesNoArgs() {
+        return messages.tr("en_US", "link.command.generating");
+    }
+
+    @Benchmark
+    public String i18nTwoArgs() {
+        return i18n.tr("de_DE", "link.command.code_exists", "A7B3C9", "300");
+    }
+
+    @Benchmark
+    public String templatesTwoArgs() {
+        return messages.tr("de_DE", "link.command.code_exists", "A7B3C9", "300");
+    }
+}
@@ -0,0 +1,114 @@
+package gg.pigraid.discordlink.notifications;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective notification dispatch: resolving classes and members on every
+ * call (as sendNotification used to) against NotificationBridge-style
+ * pre-resolved method handles. Stand-in classes replace NotificationDispatcher.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationDispatchBenchmark {
+    private static final String API_CLASS = NotificationDispatchBenchmark.class.getName() + "$StubApi";
+    private static final String TYPE_CLASS = NotificationDispatchBenchmark.class.getName() + "$StubType";
+    private static final String NOTIFICATION_CLASS = NotificationDispatchBenchmark.class.getName() + "$StubNotification";
+
+    private final Object player = new Object();
+    private Map<String, Object> types;
+    private MethodHandle newNotification;
+    private MethodHandle sendMessage;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        Class<?> apiClass = Class.forName(API_CLASS, true, classLoader);
+        Class<?> typeClass = Class.forName(TYPE_CLASS, true, classLoader);
+        Class<?> notificationClass = Class.forName(NOTIFICATION_CLASS, true, classLoader);
+
+        types = new HashMap<>();
+        for (Object constant : typeClass.getEnumConstants()) {
+            types.put(constant.toString(), constant);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        newNotification = lookup.unreflectConstructor(notificationClass.getConstructor(String.class, typeClass))
+            .asType(MethodType.methodType(Object.class, String.class, Object.class));
+        sendMessage = lookup.unreflect(apiClass.getMethod("sendMessage", Object.class, notificationClass))
+            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    @Benchmark
+    public void resolvePerCall(Blackhole blackhole) throws ReflectiveOperationException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        Class<?> apiClass = Class.forName(API_CLASS, true, classLoader);
+        Class<?> typeClass = Class.forName(TYPE_CLASS, true, classLoader);
+        Class<?> notificationClass = Class.forName(NOTIFICATION_CLASS, true, classLoader);
+
+        Object typeValue = null;
+        for (Object constant : typeClass.getEnumConstants()) {
+            if (constant.toString().equals("Success")) {
+                typeValue = constant;
+                break;
+            }
+        }
+        Constructor<?> constructor = notificationClass.getConstructor(String.class, typeClass);
+        Object notification = constructor.newInstance("Discord linked!", typeValue);
+        Method send = apiClass.getMethod("sendMessage", Object.class, notificationClass);
+        send.invoke(null, player, notification);
+        blackhole.consume(StubApi.sent);
+    }
+
+    @Benchmark
+    public void preResolvedHandles(Blackhole blackhole) throws Throwable {
+        Object notification = (Object) newNotification.invokeExact("Discord linked!", types.get("Success"));
+        sendMessage.invokeExact(player, notification);
+        blackhole.consume(StubApi.sent);
+    }
+
+    public enum StubType {
+        Success,
+        Error,
+        Info
+    }
+
+    public static final class StubNotification {
+        private final String message;
+        private final StubType type;
+
+        public StubNotification(String message, StubType type) {
+            this.message = message;
+            this.type = type;
+        }
+    }
+
+    public static final class StubApi {
+        static Object sent;
+
+        public static void sendMessage(Object player, StubNotification notification) {
+            sent = notification;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package gg.pigraid.discordlink.players;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlayerIndex with 5k online players: XUID lookups against the linear scan
+ * over online players that sendNotification used to do, join/quit churn,
+ * and lookups running while other players join and quit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerIndexBenchmark {
+    @Param("5000")
+    public int players;
+
+    private PlayerIndex index;
+    private String[] xuids;
+    private ProxiedPlayer[] online;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        index = new PlayerIndex();
+        xuids = new String[players];
+        online = new ProxiedPlayer[players];
+        for (int i = 0; i < players; i++) {
+            xuids[i] = Long.toString(2535400000000000L + i * 7919L);
+            online[i] = standInPlayer();
+            index.put(xuids[i], online[i]);
+        }
+    }
+
+    /**
+     * Per-thread position in the XUID list, so group threads do not share a counter
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next(int bound) {
+            int current = position;
+            position = current + 1 == bound ? 0 : current + 1;
+            return current;
+        }
+    }
+
+    @Benchmark
+    public ProxiedPlayer lookup(Cursor cursor) {
+        return index.get(xuids[cursor.next(players)]);
+    }
+
+    @Benchmark
+    public ProxiedPlayer linearScan(Cursor cursor) {
+        String xuid = xuids[cursor.next(players)];
+        for (int i = 0; i < players; i++) {
+            if (xuid.equals(xuids[i])) {
+                return online[i];
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int joinQuit(Cursor cursor) {
+        int i = cursor.next(players);
+        index.remove(xuids[i], online[i]);
+        index.put(xuids[i], online[i]);
+        return index.size();
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public ProxiedPlayer lookupDuringChurn(Cursor cursor) {
+        return index.get(xuids[cursor.next(players)]);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public int joinQuitDuringChurn(Cursor cursor) {
+        return joinQuit(cursor);
+    }
+
+    /**
+     * A ProxiedPlayer needs a live proxy session to construct; the index only
+     * stores and compares references, so an uninitialized instance is enough
+     */
+    private static ProxiedPlayer standInPlayer() throws ReflectiveOperationException {
+        Field field = Unsafe.class.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        Unsafe unsafe = (Unsafe) field.get(null);
+        return (ProxiedPlayer) unsafe.allocateInstance(ProxiedPlayer.class);
+    }
+}
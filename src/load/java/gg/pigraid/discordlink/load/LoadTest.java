@@ -0,0 +1,433 @@
+package gg.pigraid.discordlink.load;
+
+import dev.waterdog.waterdogpe.utils.config.YamlConfig;
+import gg.pigraid.discordlink.api.AccountServiceEndpoint;
+import gg.pigraid.discordlink.api.CircuitBreaker;
+import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.HttpLane;
+import gg.pigraid.discordlink.api.HttpProtocol;
+import gg.pigraid.discordlink.api.LatencyHistogram;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import gg.pigraid.discordlink.api.LinkStatusCache;
+import gg.pigraid.discordlink.api.RequestPolicy;
+import gg.pigraid.discordlink.commands.CommandRateLimiter;
+import gg.pigraid.discordlink.commands.LinkCommandHandler;
+import gg.pigraid.discordlink.config.ConfigSnapshot;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline load test for the /link command path
+ *
+ * Drives virtual players at a fixed command rate through the same rate limiter
+ * and {@link LinkCommandHandler} that LinkCommands uses, so requests go through
+ * the service client's caches and the link state store exactly as in the plugin,
+ * against a {@link StubAccountService}. Only chat messages, forms and the
+ * platform scheduler are left out; a thread pool stands in for ResponseExecutor.
+ * Settings come from config.yml with the base URL replaced, and the run is tuned
+ * with load.* system properties (see pom.xml). Prints throughput, end-to-end
+ * latency, requests sent to AccountService and the heap allocation rate, and
+ * writes them to load.result as JSON.
+ */
+public class LoadTest {
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final int players;
+    private final int rate;
+    private final int durationSeconds;
+    private final int[] mix;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<CommandRateLimiter.Action, LongAdder> completed = new EnumMap<>(CommandRateLimiter.Action.class);
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder answeredFromStore = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    private LoadTest(int players, int rate, int durationSeconds, int[] mix) {
+        this.players = players;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.mix = mix;
+        for (CommandRateLimiter.Action action : CommandRateLimiter.Action.values()) {
+            completed.put(action, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StubAccountService stub = new StubAccountService(
+            Integer.getInteger("load.latency_ms", 40),
+            Integer.getInteger("load.jitter_ms", 20),
+            doubleProperty("load.error_rate", 0.01),
+            doubleProperty("load.code_exists_rate", 0.2),
+            doubleProperty("load.already_linked_rate", 0.05),
+            doubleProperty("load.not_found_rate", 0.3)
+        );
+        String baseUrl = stub.start();
+
+        ConfigSnapshot settings = ConfigSnapshot.load(
+            new YamlConfig(new File(System.getProperty("load.config", "src/main/resources/config.yml")).toPath()));
+        DiscordLinkServiceClient client = buildClient(settings.service(), baseUrl);
+        LinkStateStore stateStore = openLinkStateStore(settings.linkState());
+        client.setLinkStateStore(stateStore);
+        LinkCommandHandler handler = new LinkCommandHandler(() -> client, () -> stateStore,
+            () -> settings.linkState().refreshAfterSeconds());
+        CommandRateLimiter rateLimiter = buildRateLimiter(settings.rateLimits());
+
+        // Stand-in for the platform ResponseExecutor LinkCommands hands results to
+        ExecutorService scheduler = Executors.newFixedThreadPool(Math.max(1, settings.responses().threads()), runnable -> {
+            Thread thread = new Thread(runnable, "LoadTest-Response");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        LoadTest test = new LoadTest(
+            Integer.getInteger("load.players", 5000),
+            Integer.getInteger("load.rate", 500),
+            Integer.getInteger("load.duration_seconds", 30),
+            parseMix(System.getProperty("load.mix", "60,30,10"))
+        );
+
+        try {
+            if (!client.testConnection()) {
+                throw new IllegalStateException("Stub AccountService did not answer at " + baseUrl);
+            }
+            Report report = test.run(handler, rateLimiter, scheduler);
+            String result = report.toJson(stub.getRequests());
+            System.out.println(report.toText(stub.getRequests()));
+
+            Path resultFile = Path.of(System.getProperty("load.result", "target/load-result.json"));
+            if (resultFile.getParent() != null) {
+                Files.createDirectories(resultFile.getParent());
+            }
+            Files.writeString(resultFile, result, StandardCharsets.UTF_8);
+            System.out.println("Results written to " + resultFile);
+        } finally {
+            client.close();
+            if (stateStore != null) {
+                stateStore.close();
+            }
+            scheduler.shutdownNow();
+            stub.stop();
+        }
+    }
+
+    private Report run(LinkCommandHandler handler, CommandRateLimiter rateLimiter, ExecutorService scheduler)
+            throws InterruptedException {
+        String[] xuids = new String[players];
+        for (int i = 0; i < players; i++) {
+            xuids[i] = Long.toString(2535400000000000L + i);
+        }
+
+        AllocationMeter allocation = new AllocationMeter();
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+
+        // Open loop: commands are issued on schedule regardless of how fast responses come back
+        long next = startedAt;
+        while (next - endsAt < 0) {
+            long now = System.nanoTime();
+            if (now - next < 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(next - now, TimeUnit.MILLISECONDS.toNanos(1)));
+                continue;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            issue(handler, rateLimiter, scheduler, xuids[random.nextInt(players)], pickAction(random), next);
+            next += intervalNanos;
+        }
+        long issuedUntil = System.nanoTime();
+
+        long drainDeadline = issuedUntil + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.sum() > 0 && System.nanoTime() - drainDeadline < 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        long finishedAt = System.nanoTime();
+
+        return new Report(finishedAt - startedAt, allocation.bytesSinceStart(), inFlight.sum());
+    }
+
+    /**
+     * Issue one command the way LinkCommands does, minus the chat messages
+     */
+    private void issue(LinkCommandHandler handler, CommandRateLimiter rateLimiter, ExecutorService scheduler,
+                       String xuid, CommandRateLimiter.Action action, long scheduledAt) {
+        issued.increment();
+        if (rateLimiter != null && !rateLimiter.tryAcquire(xuid, action)) {
+            rateLimited.increment();
+            return;
+        }
+
+        CompletableFuture<?> future;
+        switch (action) {
+            case LINK:
+                future = handler.requestCode(xuid, "Player" + xuid.substring(xuid.length() - 4));
+                break;
+            case STATUS:
+                if (handler.knownStatus(xuid) != null) {
+                    // Answered from the link state store on the command thread
+                    latency.record(System.nanoTime() - scheduledAt);
+                    answeredFromStore.increment();
+                    completed.get(action).increment();
+                    return;
+                }
+                future = handler.lookupStatus(xuid);
+                break;
+            default:
+                future = handler.lookupForUnlink(xuid);
+                break;
+        }
+
+        inFlight.increment();
+
+        future.whenComplete((result, error) -> scheduler.execute(() -> {
+            // Measured from the scheduled send time so a stalled sender shows up as latency
+            latency.record(System.nanoTime() - scheduledAt);
+            if (error != null) {
+                failed.increment();
+            } else {
+                completed.get(action).increment();
+            }
+            inFlight.decrement();
+        }));
+    }
+
+    private CommandRateLimiter.Action pickAction(ThreadLocalRandom random) {
+        int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+        if (roll < mix[0]) {
+            return CommandRateLimiter.Action.LINK;
+        }
+        return roll < mix[0] + mix[1] ? CommandRateLimiter.Action.STATUS : CommandRateLimiter.Action.UNLINK;
+    }
+
+    /**
+     * Build the client the same way DiscordLinkPlugin does, pointed at the stub
+     */
+    private static DiscordLinkServiceClient buildClient(ConfigSnapshot.Service service, String baseUrl) {
+        LinkStatusCache linkStatusCache = null;
+        ConfigSnapshot.Cache cacheSettings = service.cache();
+        if (cacheSettings.enabled()) {
+            linkStatusCache = new LinkStatusCache(
+                cacheSettings.maxEntries(),
+                cacheSettings.ttlSeconds(),
+                cacheSettings.negativeTtlSeconds()
+            );
+        }
+
+        CircuitBreaker circuitBreaker = null;
+        ConfigSnapshot.Breaker breakerSettings = service.circuitBreaker();
+        if (breakerSettings.enabled()) {
+            circuitBreaker = new CircuitBreaker(
+                breakerSettings.windowSize(),
+                breakerSettings.minimumCalls(),
+                breakerSettings.failureRateThreshold(),
+                breakerSettings.slowCallThresholdMs(),
+                breakerSettings.slowCallRateThreshold(),
+                breakerSettings.openSeconds(),
+                breakerSettings.halfOpenCalls()
+            );
+        }
+
+        HttpLane httpLane = null;
+        ConfigSnapshot.Http http = service.http();
+        if (http.isolated()) {
+            httpLane = new HttpLane(
+                http.maxRequests(),
+                http.maxRequestsPerHost(),
+                http.maxQueuedRequests(),
+                http.maxIdleConnections(),
+                http.keepAliveSeconds()
+            );
+        }
+
+        ConfigSnapshot.Timeouts timeouts = service.timeouts();
+        Map<AccountServiceEndpoint, Long> endpointTimeouts = new EnumMap<>(AccountServiceEndpoint.class);
+        endpointTimeouts.put(AccountServiceEndpoint.GENERATE_CODE, (long) timeouts.generateCodeMs());
+        endpointTimeouts.put(AccountServiceEndpoint.UNLINK, (long) timeouts.unlinkMs());
+        endpointTimeouts.put(AccountServiceEndpoint.ACCOUNT_FETCH, (long) timeouts.accountFetchMs());
+        endpointTimeouts.put(AccountServiceEndpoint.HEALTH, (long) timeouts.healthMs());
+        RequestPolicy requestPolicy = new RequestPolicy(
+            timeouts.connectMs(),
+            endpointTimeouts,
+            TimeUnit.SECONDS.toMillis(timeouts.totalSeconds()),
+            timeouts.retryMaxAttempts(),
+            timeouts.retryBaseBackoffMs(),
+            timeouts.retryMaxBackoffMs()
+        );
+
+        DiscordLinkServiceClient client = new DiscordLinkServiceClient(baseUrl, "load-test", false, linkStatusCache,
+                circuitBreaker, requestPolicy, httpLane, HttpProtocol.fromConfig(http.protocol()), null);
+        if (service.batching().enabled()) {
+            client.enableLookupBatching(service.batching().windowMs(), service.batching().maxBatchSize());
+        }
+        return client;
+    }
+
+    /**
+     * Open the link state store the same way DiscordLinkPlugin does, in a fresh temporary file
+     */
+    private static LinkStateStore openLinkStateStore(ConfigSnapshot.LinkState linkState) throws IOException {
+        if (!linkState.enabled()) {
+            return null;
+        }
+        Path file = Files.createTempFile("link-state", ".bin");
+        file.toFile().deleteOnExit();
+        LinkStateStore store = new LinkStateStore(file, LogManager.getLogger("LoadTest"), linkState.maxAgeDays(),
+            linkState.flushIntervalSeconds());
+        store.open().join();
+        return store;
+    }
+
+    private static CommandRateLimiter buildRateLimiter(ConfigSnapshot.RateLimits rateLimits) {
+        if (!rateLimits.enabled() || Boolean.getBoolean("load.disable_rate_limits")) {
+            return null;
+        }
+        Map<CommandRateLimiter.Action, CommandRateLimiter.Limit> limits = new EnumMap<>(CommandRateLimiter.Action.class);
+        limits.put(CommandRateLimiter.Action.LINK,
+            new CommandRateLimiter.Limit(rateLimits.linkPerMinute(), rateLimits.linkBurst()));
+        limits.put(CommandRateLimiter.Action.STATUS,
+            new CommandRateLimiter.Limit(rateLimits.statusPerMinute(), rateLimits.statusBurst()));
+        limits.put(CommandRateLimiter.Action.UNLINK,
+            new CommandRateLimiter.Limit(rateLimits.unlinkPerMinute(), rateLimits.unlinkBurst()));
+        return new CommandRateLimiter(limits, rateLimits.globalPerSecond(), rateLimits.globalBurst());
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("load.mix must be link,status,unlink weights, got " + value);
+        }
+        int[] weights = new int[3];
+        for (int i = 0; i < 3; i++) {
+            weights[i] = Integer.parseInt(parts[i].trim());
+        }
+        if (weights[0] + weights[1] + weights[2] <= 0) {
+            throw new IllegalArgumentException("load.mix weights must add up to more than 0");
+        }
+        return weights;
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Bytes allocated by all live threads, via the HotSpot thread MXBean
+     *
+     * Threads that exit during the run are not counted, so this is a lower bound.
+     */
+    private static final class AllocationMeter {
+        private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final Map<Long, Long> baseline = new TreeMap<>();
+
+        private AllocationMeter() {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            for (long id : threads.getAllThreadIds()) {
+                baseline.put(id, threads.getThreadAllocatedBytes(id));
+            }
+        }
+
+        private long bytesSinceStart() {
+            long total = 0;
+            for (long id : threads.getAllThreadIds()) {
+                long allocated = threads.getThreadAllocatedBytes(id);
+                if (allocated > 0) {
+                    total += allocated - baseline.getOrDefault(id, 0L);
+                }
+            }
+            return total;
+        }
+    }
+
+    private final class Report {
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+        private final long unfinished;
+        private final LatencyHistogram.Snapshot latencySnapshot = latency.snapshot();
+
+        private Report(long elapsedNanos, long allocatedBytes, long unfinished) {
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.unfinished = unfinished;
+        }
+
+        private double seconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        private long completedTotal() {
+            long total = 0;
+            for (LongAdder count : completed.values()) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        private long outboundTotal(Map<String, LongAdder> requests) {
+            long total = 0;
+            for (Map.Entry<String, LongAdder> entry : requests.entrySet()) {
+                if (!"health".equals(entry.getKey())) {
+                    total += entry.getValue().sum();
+                }
+            }
+            return total;
+        }
+
+        private String toText(Map<String, LongAdder> requests) {
+            long answered = completedTotal() + failed.sum();
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "Load test: %d players, %d commands/s for %ds (mix link/status/unlink %d/%d/%d)%n",
+                players, rate, durationSeconds, mix[0], mix[1], mix[2]));
+            text.append(String.format(Locale.ROOT, "  commands    issued=%d rate_limited=%d completed=%d (%d from link state) failed=%d unfinished=%d%n",
+                issued.sum(), rateLimited.sum(), completedTotal(), answeredFromStore.sum(), failed.sum(), unfinished));
+            text.append(String.format(Locale.ROOT, "  throughput  %.1f commands/s answered%n", answered / seconds()));
+            text.append(String.format(Locale.ROOT, "  latency     p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                latencySnapshot.getP50() / 1000.0, latencySnapshot.getP95() / 1000.0,
+                latencySnapshot.getP99() / 1000.0, latencySnapshot.getMax() / 1000.0));
+            text.append(String.format(Locale.ROOT, "  outbound    %d requests (%.2f per answered command) %s%n",
+                outboundTotal(requests), answered == 0 ? 0.0 : (double) outboundTotal(requests) / answered, new TreeMap<>(requests)));
+            text.append(String.format(Locale.ROOT, "  allocation  %.1f MB/s (%.1f KB per answered command)",
+                allocatedBytes / seconds() / (1024 * 1024), answered == 0 ? 0.0 : allocatedBytes / 1024.0 / answered));
+            return text.toString();
+        }
+
+        private String toJson(Map<String, LongAdder> requests) {
+            long answered = completedTotal() + failed.sum();
+            StringBuilder endpoints = new StringBuilder();
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(requests).entrySet()) {
+                if (endpoints.length() > 0) {
+                    endpoints.append(',');
+                }
+                endpoints.append('"').append(entry.getKey()).append("\":").append(entry.getValue().sum());
+            }
+            return String.format(Locale.ROOT,
+                "{\"players\":%d,\"rate\":%d,\"durationSeconds\":%d,\"issued\":%d,\"rateLimited\":%d,\"completed\":%d,"
+                    + "\"answeredFromLinkState\":%d,\"failed\":%d,\"unfinished\":%d,\"throughput\":%.2f,\"latencyMicros\":{\"p50\":%d,\"p95\":%d,\"p99\":%d,\"max\":%d},"
+                    + "\"outboundRequests\":{%s},\"allocatedBytesPerSecond\":%d}%n",
+                players, rate, durationSeconds, issued.sum(), rateLimited.sum(), completedTotal(), answeredFromStore.sum(),
+                failed.sum(), unfinished,
+                answered / seconds(), latencySnapshot.getP50(), latencySnapshot.getP95(),
+                latencySnapshot.getP99(), latencySnapshot.getMax(), endpoints,
+                (long) (allocatedBytes / seconds()));
+        }
+    }
+}
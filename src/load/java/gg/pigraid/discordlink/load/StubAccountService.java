@@ -0,0 +1,193 @@
+package gg.pigraid.discordlink.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for AccountService with configurable latency and response mix
+ *
+ * Serves the endpoints DiscordLinkServiceClient calls under /api/accounts and
+ * counts every request it receives per endpoint.
+ */
+public class StubAccountService {
+    private static final String BASE_PATH = "/api/accounts";
+    private static final Pattern XUID_PATTERN = Pattern.compile("\\d{8,}");
+
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final double errorRate;
+    private final double codeExistsRate;
+    private final double alreadyLinkedRate;
+    private final double notFoundRate;
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param latencyMillis Base response latency
+     * @param jitterMillis Random extra latency, 0..jitter
+     * @param errorRate Share of requests answered with HTTP 500
+     * @param codeExistsRate Share of generate-code requests answered with CODE_EXISTS
+     * @param alreadyLinkedRate Share of generate-code requests answered with ALREADY_LINKED
+     * @param notFoundRate Share of account fetches answered with 404
+     */
+    public StubAccountService(int latencyMillis, int jitterMillis, double errorRate, double codeExistsRate,
+                              double alreadyLinkedRate, double notFoundRate) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.codeExistsRate = codeExistsRate;
+        this.alreadyLinkedRate = alreadyLinkedRate;
+        this.notFoundRate = notFoundRate;
+    }
+
+    /**
+     * @return Base URL to configure the client with
+     */
+    public String start() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // Latency is simulated by sleeping, so every in-flight request needs its own thread
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "StubAccountService");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext(BASE_PATH, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return Requests received per endpoint
+     */
+    public Map<String, LongAdder> getRequests() {
+        return requests;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            String endpoint = endpointOf(exchange.getRequestMethod(), path);
+            requests.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                Thread.sleep(latencyMillis + (jitterMillis > 0 ? random.nextInt(jitterMillis + 1) : 0));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!"health".equals(endpoint) && random.nextDouble() < errorRate) {
+                respond(exchange, 500, "{\"success\":false,\"error\":\"INTERNAL\",\"message\":\"Injected failure\"}");
+                return;
+            }
+
+            switch (endpoint) {
+                case "generate-code":
+                    respond(exchange, 200, generateCode(random));
+                    break;
+                case "unlink":
+                    respond(exchange, 200, "{\"success\":true,\"message\":\"Unlinked\"}");
+                    break;
+                case "account-fetch":
+                    if (random.nextDouble() < notFoundRate) {
+                        respond(exchange, 404, "");
+                    } else {
+                        respond(exchange, 200, account(path.substring(1)));
+                    }
+                    break;
+                case "bulk":
+                    respond(exchange, 200, bulk(body, random));
+                    break;
+                case "health":
+                    respond(exchange, 200, "{\"status\":\"ok\"}");
+                    break;
+                default:
+                    respond(exchange, 404, "");
+                    break;
+            }
+        }
+    }
+
+    private String generateCode(ThreadLocalRandom random) {
+        double roll = random.nextDouble();
+        String code = Integer.toString(random.nextInt(0x100000, 0x1000000), 16).toUpperCase();
+        if (roll < alreadyLinkedRate) {
+            return "{\"success\":false,\"error\":\"ALREADY_LINKED\",\"message\":\"pigraider\"}";
+        }
+        if (roll < alreadyLinkedRate + codeExistsRate) {
+            return "{\"success\":false,\"error\":\"CODE_EXISTS\",\"code\":\"" + code + "\",\"expiresInSeconds\":"
+                + random.nextInt(30, 300) + "}";
+        }
+        return "{\"success\":true,\"code\":\"" + code + "\",\"expiresAt\":\"2026-10-17T12:05:00Z\",\"expiresInSeconds\":300}";
+    }
+
+    private String bulk(String body, ThreadLocalRandom random) {
+        StringBuilder accounts = new StringBuilder();
+        Matcher matcher = XUID_PATTERN.matcher(body);
+        while (matcher.find()) {
+            if (random.nextDouble() < notFoundRate) {
+                continue;
+            }
+            if (accounts.length() > 0) {
+                accounts.append(',');
+            }
+            accounts.append('"').append(matcher.group()).append("\":").append(account(matcher.group()));
+        }
+        return "{\"accounts\":{" + accounts + "}}";
+    }
+
+    private static String account(String xuid) {
+        return "{\"id\":\"" + xuid + "-id\",\"xuid\":\"" + xuid + "\",\"username\":\"Player" + xuid.substring(xuid.length() - 4)
+            + "\",\"createdAt\":\"2025-03-14T09:26:53Z\",\"settings\":{\"language\":\"en_US\"}}";
+    }
+
+    private static String endpointOf(String method, String path) {
+        if (path.equals("/health")) {
+            return "health";
+        }
+        if (path.equals("/discord/generate-code")) {
+            return "generate-code";
+        }
+        if (path.equals("/discord/unlink")) {
+            return "unlink";
+        }
+        if (path.equals("/bulk")) {
+            return "bulk";
+        }
+        return "GET".equals(method) ? "account-fetch" : "unknown";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package gg.pigraid.discordlink.load;
+
+import gg.pigraid.discordlink.webhook.WebhookServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline throughput test for the webhook receiver
+ *
+ * A stand-in for AccountService's sender keeps a few connections open and
+ * posts signed link/unlink events back to back, the way AccountService signs
+ * them: "sha256=" + hex HMAC-SHA256 of (timestamp + "." + body). Raw sockets
+ * keep the client's own overhead out of the measurement. Prints events per
+ * second and fails below load.webhook_min_rate (0 only reports).
+ */
+public class WebhookLoadTest {
+    private static final String SECRET = "load-test-secret";
+    private static final String PATH = "/discordlink/events";
+
+    private final LongAdder received = new LongAdder();
+    private final int connections;
+    private WebhookServer server;
+
+    private WebhookLoadTest(int connections) {
+        this.connections = connections;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int events = Integer.getInteger("load.webhook_events", 10_000);
+        int minRate = Integer.getInteger("load.webhook_min_rate", 0);
+        WebhookLoadTest test = new WebhookLoadTest(Integer.getInteger("load.webhook_connections", 8));
+
+        double perSecond;
+        try {
+            test.start(Integer.getInteger("load.webhook_threads", 4));
+            // Warm up the handler and HMAC code paths before measuring
+            test.send(0, Math.max(1, events / 5));
+            long receivedBefore = test.received.sum();
+
+            long startNanos = System.nanoTime();
+            test.send(1, events);
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            long applied = test.received.sum() - receivedBefore;
+            if (applied != events) {
+                throw new IllegalStateException("Sent " + events + " events but " + applied + " were applied");
+            }
+            perSecond = events / seconds;
+        } finally {
+            test.stop();
+        }
+
+        System.out.println(String.format(Locale.ROOT, "Webhook load test: %d events over %d connections, %.0f events/s",
+            events, test.connections, perSecond));
+        if (perSecond < minRate) {
+            System.err.println("Below load.webhook_min_rate of " + minRate + " events/s");
+            System.exit(1);
+        }
+    }
+
+    private void start(int threads) throws IOException {
+        server = new WebhookServer(event -> received.increment(), "127.0.0.1", 0, PATH, SECRET, 300, threads);
+        server.start();
+    }
+
+    private void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private void send(int round, int events) throws Exception {
+        int perConnection = events / connections;
+        int remainder = events % connections;
+        long timestamp = System.currentTimeMillis() / 1000;
+        ExecutorService senders = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            long firstXuid = 2535400000000000L + round * 10_000_000L;
+            for (int c = 0; c < connections; c++) {
+                int count = perConnection + (c < remainder ? 1 : 0);
+                long connectionFirstXuid = firstXuid;
+                firstXuid += count;
+                results.add(senders.submit(() -> {
+                    postEvents(connectionFirstXuid, count, timestamp);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    private void postEvents(long firstXuid, int count, long timestamp) throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            for (int i = 0; i < count; i++) {
+                String type = i % 2 == 0 ? "linked" : "unlinked";
+                String body = "{\"type\":\"" + type + "\",\"xuid\":\"" + (firstXuid + i) + "\","
+                    + "\"discordId\":\"112233445566778899\",\"discordUsername\":\"pigraider\"}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                String head = "POST " + PATH + " HTTP/1.1\r\n"
+                    + "Host: 127.0.0.1\r\n"
+                    + "X-Timestamp: " + timestamp + "\r\n"
+                    + "X-Signature: sha256=" + sign(timestamp + "." + body) + "\r\n"
+                    + "Content-Length: " + bytes.length + "\r\n\r\n";
+                out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+                out.write(bytes);
+                out.flush();
+
+                String status = in.readLine();
+                if (!"HTTP/1.1 204 No Content".equals(status)) {
+                    throw new IllegalStateException("Unexpected response: " + status);
+                }
+                // 204 has no body, so the response ends with the blank line after the headers
+                String header;
+                do {
+                    header = in.readLine();
+                } while (header != null && !header.isEmpty());
+            }
+        }
+    }
+
+    private static String sign(String payload) throws GeneralSecurityException {
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -1,13 +1,54 @@
 package gg.pigraid.discordlink;
 
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
 import dev.waterdog.waterdogpe.plugin.Plugin;
 import dev.waterdog.waterdogpe.utils.config.YamlConfig;
 import gg.pigraid.accountadapter.AccountAdapter;
+import gg.pigraid.discordlink.api.AccountServiceEndpoint;
+import gg.pigraid.discordlink.api.CircuitBreaker;
 import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.HttpLane;
+import gg.pigraid.discordlink.api.HttpProtocol;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import gg.pigraid.discordlink.api.LinkStatusCache;
+import gg.pigraid.discordlink.api.RequestPolicy;
+import gg.pigraid.discordlink.api.ServiceMetrics;
+import gg.pigraid.discordlink.commands.CommandRateLimiter;
 import gg.pigraid.discordlink.commands.LinkCommands;
+import gg.pigraid.discordlink.commands.ResponseExecutor;
+import gg.pigraid.discordlink.config.ConfigSnapshot;
+import gg.pigraid.discordlink.config.ConfigWatcher;
+import gg.pigraid.discordlink.forms.LinkFormTemplates;
+import gg.pigraid.discordlink.i18n.LocaleResolver;
+import gg.pigraid.discordlink.i18n.MessageTemplates;
+import gg.pigraid.discordlink.i18n.PlayerLanguageCache;
+import gg.pigraid.discordlink.listeners.PlayerListener;
+import gg.pigraid.discordlink.metrics.MetricsServer;
+import gg.pigraid.discordlink.notifications.NotificationBridge;
+import gg.pigraid.discordlink.players.CodeCountdown;
+import gg.pigraid.discordlink.players.LinkStatePrefetcher;
+import gg.pigraid.discordlink.players.PlayerIndex;
+import gg.pigraid.discordlink.webhook.LinkEventHandler;
+import gg.pigraid.discordlink.webhook.WebhookServer;
 import gg.pigraid.waterdogi18n.WaterdogI18n;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DiscordLink-WDPE Plugin
@@ -26,56 +67,70 @@ public class DiscordLinkPlugin extends Plugin {
     private static DiscordLinkPlugin instance;
     private static AccountAdapter accountAdapter;
     private static WaterdogI18n i18n;
-    private DiscordLinkServiceClient serviceClient;
-    private YamlConfig config;
+    private MessageTemplates messages;
+    private LinkFormTemplates linkFormTemplates;
+    private PlayerLanguageCache playerLanguages;
+    private volatile DiscordLinkServiceClient serviceClient;
+    private volatile YamlConfig config;
+    private volatile ConfigSnapshot settings;
+    private ConfigWatcher configWatcher;
     private Object notificationDispatcher;
+    private volatile NotificationBridge notificationBridge;
+    private final PlayerIndex playerIndex = new PlayerIndex();
+    private WebhookServer webhookServer;
+    private MetricsServer metricsServer;
+    private final ServiceMetrics serviceMetrics = new ServiceMetrics();
+    private volatile LinkStatePrefetcher linkStatePrefetcher;
+    private volatile CommandRateLimiter commandRateLimiter;
+    private volatile CodeCountdown codeCountdown;
+    private volatile ResponseExecutor responseExecutor;
+    private volatile LinkStateStore linkStateStore;
 
     @Override
     public void onEnable() {
         instance = this;
+        StartupTimings timings = new StartupTimings();
 
         // Save default config if it doesn't exist
         this.saveResource("config.yml");
 
         // Load config
         this.config = new YamlConfig(new File(this.getDataFolder(), "config.yml").toPath());
+        this.settings = ConfigSnapshot.load(this.config);
+        timings.mark("config");
 
         // Initialize Discord Link Service Client
-        String baseUrl = config.getString("account_service.base_url", "http://localhost/api/accounts");
-        String apiKey = config.getString("account_service.api_key", "");
-        boolean debugRequests = config.getBoolean("account_service.debug_requests", false);
+        ConfigSnapshot.Service service = settings.service();
 
         // SECURITY: Validate that API key is configured
-        if (apiKey.isEmpty()) {
+        if (service.apiKey().isEmpty()) {
             this.getLogger().error("SECURITY ERROR: API key not configured in config.yml!");
             this.getLogger().error("Please configure account_service.api_key");
             this.getLogger().error("Plugin will not function properly without an API key.");
             return;
         }
 
-        this.serviceClient = new DiscordLinkServiceClient(baseUrl, apiKey, debugRequests);
+        // Link state from previous runs, loaded in the background
+        this.linkStateStore = openLinkStateStore(settings.linkState());
 
-        // Test connection to AccountService
-        this.getProxy().getScheduler().scheduleAsync(() -> {
-            if (this.serviceClient.testConnection()) {
-                this.getLogger().info("Successfully connected to AccountService at " + baseUrl);
-            } else {
-                this.getLogger().warn("Failed to connect to AccountService at " + baseUrl);
-            }
-        });
+        startServiceClient(buildServiceClient(service), service);
+        timings.mark("account service");
 
-        // Initialize AccountAdapter for multi-language support
+        // Initialize AccountAdapter for multi-language support (connection test runs off the enable thread)
         try {
-            accountAdapter = new AccountAdapter(baseUrl, apiKey, debugRequests);
-
-            if (accountAdapter.testConnection()) {
-                this.getLogger().info("AccountAdapter initialized successfully");
-            } else {
-                this.getLogger().warn("AccountAdapter connection test failed - language preferences may be unavailable");
-            }
+            AccountAdapter adapter = new AccountAdapter(service.baseUrl(), service.apiKey(), service.debugRequests());
+            accountAdapter = adapter;
+            this.getProxy().getScheduler().scheduleAsync(() -> {
+                if (adapter.testConnection()) {
+                    this.getLogger().info("AccountAdapter initialized successfully");
+                } else {
+                    this.getLogger().warn("AccountAdapter connection test failed - language preferences may be unavailable");
+                }
+            });
         } catch (IllegalArgumentException e) {
             this.getLogger().warn("Failed to initialize AccountAdapter: " + e.getMessage());
         }
+        timings.mark("account adapter");
 
         // Initialize WaterdogI18n for translations
         File langFolder = new File(this.getDataFolder(), "language");
@@ -83,57 +138,592 @@ public class DiscordLinkPlugin extends Plugin {
             langFolder.mkdirs();
         }
 
-        // Save all language files from resources (only those that exist)
-        String[] languages = {"id_ID", "da_DK", "de_DE", "en_GB", "en_US", "es_ES", "es_MX",
-                              "fr_CA", "fr_FR", "it_IT", "hu_HU", "nl_NL", "nb_NO", "pl_PL",
-                              "pt_BR", "pt_PT", "sk_SK", "fi_FI", "sv_SE", "tr_TR", "cs_CZ",
-                              "el_GR", "bg_BG", "ru_RU", "uk_UA", "ja_JP", "zh_CN", "zh_TW",
-                              "ko_KR", "th_TH"};
-        int savedLanguages = 0;
-        for (String lang : languages) {
-            try {
-                this.saveResource("language/" + lang + ".lang");
-                savedLanguages++;
-            } catch (Exception e) {
-                // Language file doesn't exist in JAR - skip it
-                this.getLogger().debug("Language file not found: " + lang + ".lang (using fallback)");
+        // Language files are independent, so they are extracted and compiled on a small startup pool
+        ExecutorService languagePool = newLanguagePool();
+        try {
+            // Save the language files shipped in the JAR, as listed by the build-generated index
+            List<String> languages = readLanguageIndex();
+            AtomicInteger savedLanguages = new AtomicInteger();
+            List<CompletableFuture<Void>> saves = new ArrayList<>(languages.size());
+            for (String lang : languages) {
+                saves.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        extractLanguage(langFolder, lang);
+                        savedLanguages.incrementAndGet();
+                    } catch (IOException e) {
+                        this.getLogger().warn("Failed to save language file " + lang + ".lang: " + e.getMessage());
+                    }
+                }, languagePool));
             }
+            saves.forEach(CompletableFuture::join);
+            this.getLogger().info("Saved " + savedLanguages.get() + " language files");
+            timings.mark("language files");
+
+            // WaterdogI18n loads its files itself, in one call
+            i18n = new WaterdogI18n("DiscordLink", langFolder, accountAdapter);
+            i18n.loadAllLanguages();
+            i18n.setDefaultLanguage("en_US");
+
+            this.getLogger().info("Multi-language support enabled! Loaded languages: " + i18n.getLoadedLanguages());
+            timings.mark("i18n");
+
+            // Resolve each player's locale once per session (en_AU -> en_GB -> en_US, ...)
+            this.playerLanguages = new PlayerLanguageCache(LocaleResolver.fromLanguageFolder(langFolder, "en_US"));
+
+            // Compile translations once so the hot path does no placeholder parsing
+            this.messages = new MessageTemplates(i18n);
+            this.getLogger().debug("Compiled " + this.messages.precompile(langFolder, languagePool) + " message templates");
+            this.linkFormTemplates = new LinkFormTemplates(this);
+            this.getLogger().debug("Rendered " + this.linkFormTemplates.precompile(langFolder, languagePool) + " link form skeletons");
+            timings.mark("templates");
+        } finally {
+            languagePool.shutdown();
         }
-        this.getLogger().info("Saved " + savedLanguages + " language files");
-
-        i18n = new WaterdogI18n("DiscordLink", langFolder, accountAdapter);
-        i18n.loadAllLanguages();
-        i18n.setDefaultLanguage("en_US");
-
-        this.getLogger().info("Multi-language support enabled! Loaded languages: " + i18n.getLoadedLanguages());
 
         // Get NotificationDispatcher plugin (optional)
         try {
-            for (Plugin plugin : this.getProxy().getPluginManager().getPlugins()) {
-                if (plugin.getName().equals("NotificationDispatcher-WDPE")) {
-                    this.notificationDispatcher = plugin;
-                    break;
-                }
-            }
+            this.notificationDispatcher = this.getProxy().getPluginManager().getPluginByName("NotificationDispatcher-WDPE");
             if (this.notificationDispatcher != null) {
+                this.notificationBridge = NotificationBridge.resolve((Plugin) this.notificationDispatcher);
                 this.getLogger().info("NotificationDispatcher-WDPE integration enabled");
             } else {
                 this.getLogger().warn("NotificationDispatcher-WDPE not found - notifications disabled");
             }
-        } catch (NullPointerException e) {
+        } catch (NullPointerException | ReflectiveOperationException e) {
             this.getLogger().warn("Failed to load NotificationDispatcher-WDPE: " + e.getMessage());
         }
 
+        // Index online players by XUID (seeded with players already online after a reload)
+        this.playerIndex.reset(this.getProxy().getPlayers().values());
+        new PlayerListener(this).register();
+        timings.mark("players");
+
+        // Optional: receive link/unlink events pushed by AccountService
+        if (settings.webhook().enabled()) {
+            startWebhookServer(settings.webhook());
+        }
+
+        // Optional: Prometheus scrape endpoint for request latencies and cache stats
+        if (settings.metrics().prometheusEnabled()) {
+            startMetricsServer(settings.metrics());
+        }
+
+        // Rate limit /link subcommands per player and proxy-wide
+        this.commandRateLimiter = buildCommandRateLimiter(settings.rateLimits());
+
+        // Optional: live expiry countdown for pending link codes
+        this.codeCountdown = buildCodeCountdown(settings.countdown());
+
+        // One thread hop from AccountService responses to player messages
+        this.responseExecutor = buildResponseExecutor(settings.responses());
+
         // Register commands
         this.getProxy().getCommandMap().registerCommand(new LinkCommands(this));
 
-        this.getLogger().info("DiscordLink-WDPE Plugin has been enabled!");
+        // Apply config.yml edits without a restart
+        if (settings.settings().watchConfig()) {
+            startConfigWatcher();
+        }
+        timings.mark("commands");
+
+        this.getLogger().info("DiscordLink-WDPE Plugin has been enabled in " + timings.totalMillis() + "ms (" + timings + ")");
         this.getLogger().info("Players can now use /link to connect their Discord accounts");
     }
 
+    /**
+     * AccountService client plus the login prefetcher that depends on it
+     */
+    private record ServiceComponents(DiscordLinkServiceClient client, LinkStatePrefetcher prefetcher) {
+    }
+
+    /**
+     * Build the AccountService client with its cache, circuit breaker and HTTP lane,
+     * plus the login prefetcher that depends on it, without publishing them
+     */
+    private ServiceComponents buildServiceClient(ConfigSnapshot.Service service) {
+        // Cache account lookups so repeated /link status does not hit AccountService every time
+        LinkStatusCache linkStatusCache = null;
+        ConfigSnapshot.Cache cacheSettings = service.cache();
+        if (cacheSettings.enabled()) {
+            linkStatusCache = new LinkStatusCache(
+                cacheSettings.maxEntries(),
+                cacheSettings.ttlSeconds(),
+                cacheSettings.negativeTtlSeconds()
+            );
+        }
+
+        // Fail fast while AccountService is down instead of waiting for timeouts
+        CircuitBreaker circuitBreaker = null;
+        ConfigSnapshot.Breaker breakerSettings = service.circuitBreaker();
+        if (breakerSettings.enabled()) {
+            circuitBreaker = new CircuitBreaker(
+                breakerSettings.windowSize(),
+                breakerSettings.minimumCalls(),
+                breakerSettings.failureRateThreshold(),
+                breakerSettings.slowCallThresholdMs(),
+                breakerSettings.slowCallRateThreshold(),
+                breakerSettings.openSeconds(),
+                breakerSettings.halfOpenCalls()
+            );
+            circuitBreaker.setStateListener(state -> {
+                if (state == CircuitBreaker.State.OPEN) {
+                    this.getLogger().warn("AccountService circuit breaker opened - requests will fail fast");
+                } else {
+                    this.getLogger().info("AccountService circuit breaker is now " + state);
+                }
+            });
+        }
+
+        // Optional: isolate DiscordLink traffic from other PigHttp-WDPE consumers
+        HttpLane httpLane = null;
+        ConfigSnapshot.Http http = service.http();
+        if (http.isolated()) {
+            httpLane = new HttpLane(
+                http.maxRequests(),
+                http.maxRequestsPerHost(),
+                http.maxQueuedRequests(),
+                http.maxIdleConnections(),
+                http.keepAliveSeconds()
+            );
+        }
+
+        DiscordLinkServiceClient client = new DiscordLinkServiceClient(service.baseUrl(), service.apiKey(),
+                service.debugRequests(), linkStatusCache, circuitBreaker, loadRequestPolicy(service.timeouts()),
+                httpLane, HttpProtocol.fromConfig(http.protocol()), serviceMetrics);
+
+        // Every confirmed link state is also persisted for the next restart
+        client.setLinkStateStore(this.linkStateStore);
+
+        try {
+            // Optional: collect account lookups into bulk requests (helps with reconnect waves)
+            if (service.batching().enabled()) {
+                client.enableLookupBatching(service.batching().windowMs(), service.batching().maxBatchSize());
+            }
+
+            // Optional: fetch link state in the background when players join
+            LinkStatePrefetcher prefetcher = null;
+            if (service.prefetch().enabled()) {
+                prefetcher = new LinkStatePrefetcher(
+                    client,
+                    client.enableSessionLinkStore(),
+                    service.prefetch().maxConcurrent(),
+                    service.prefetch().maxPerSecond()
+                );
+            }
+            return new ServiceComponents(client, prefetcher);
+        } catch (RuntimeException e) {
+            client.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Publish a built client and prefetcher and start their background work
+     */
+    private void startServiceClient(ServiceComponents components, ConfigSnapshot.Service service) {
+        DiscordLinkServiceClient client = components.client();
+        LinkStatePrefetcher prefetcher = components.prefetcher();
+
+        // Test connection to AccountService (also opens the first pooled connection)
+        this.getProxy().getScheduler().scheduleAsync(() -> {
+            if (client.testConnection()) {
+                this.getLogger().info("Successfully connected to AccountService at " + service.baseUrl());
+            } else {
+                this.getLogger().warn("Failed to connect to AccountService at " + service.baseUrl());
+            }
+        });
+
+        // Keep pooled connections open so the first /link after idle is as fast as the rest
+        client.startKeepWarm(service.http().keepWarmSeconds());
+
+        // Seed the prefetcher with players already online
+        if (prefetcher != null) {
+            for (ProxiedPlayer player : this.getProxy().getPlayers().values()) {
+                prefetcher.onLogin(player.getLoginData().getXuid());
+            }
+        }
+
+        this.serviceClient = client;
+        this.linkStatePrefetcher = prefetcher;
+    }
+
+    /**
+     * Build per-endpoint timeouts and the retry budget from config
+     * account_service.timeout is the total deadline for a request including retries
+     */
+    private static RequestPolicy loadRequestPolicy(ConfigSnapshot.Timeouts timeouts) {
+        Map<AccountServiceEndpoint, Long> endpointTimeouts = new EnumMap<>(AccountServiceEndpoint.class);
+        endpointTimeouts.put(AccountServiceEndpoint.GENERATE_CODE, (long) timeouts.generateCodeMs());
+        endpointTimeouts.put(AccountServiceEndpoint.UNLINK, (long) timeouts.unlinkMs());
+        endpointTimeouts.put(AccountServiceEndpoint.ACCOUNT_FETCH, (long) timeouts.accountFetchMs());
+        endpointTimeouts.put(AccountServiceEndpoint.HEALTH, (long) timeouts.healthMs());
+
+        return new RequestPolicy(
+            timeouts.connectMs(),
+            endpointTimeouts,
+            TimeUnit.SECONDS.toMillis(timeouts.totalSeconds()),
+            timeouts.retryMaxAttempts(),
+            timeouts.retryBaseBackoffMs(),
+            timeouts.retryMaxBackoffMs()
+        );
+    }
+
+    /**
+     * @return The limiter, or null if rate limiting is disabled
+     */
+    private static CommandRateLimiter buildCommandRateLimiter(ConfigSnapshot.RateLimits rateLimits) {
+        if (!rateLimits.enabled()) {
+            return null;
+        }
+        Map<CommandRateLimiter.Action, CommandRateLimiter.Limit> limits = new EnumMap<>(CommandRateLimiter.Action.class);
+        limits.put(CommandRateLimiter.Action.LINK,
+            new CommandRateLimiter.Limit(rateLimits.linkPerMinute(), rateLimits.linkBurst()));
+        limits.put(CommandRateLimiter.Action.STATUS,
+            new CommandRateLimiter.Limit(rateLimits.statusPerMinute(), rateLimits.statusBurst()));
+        limits.put(CommandRateLimiter.Action.UNLINK,
+            new CommandRateLimiter.Limit(rateLimits.unlinkPerMinute(), rateLimits.unlinkBurst()));
+        return new CommandRateLimiter(limits, rateLimits.globalPerSecond(), rateLimits.globalBurst());
+    }
+
+    /**
+     * @return The countdown, or null if countdowns are disabled
+     */
+    private CodeCountdown buildCodeCountdown(ConfigSnapshot.Countdown countdown) {
+        if (!countdown.enabled()) {
+            return null;
+        }
+        return new CodeCountdown(this, countdown.mode(), countdown.updateIntervalSeconds());
+    }
+
+    /**
+     * @return The store, or null if persisting link state is disabled
+     */
+    private LinkStateStore openLinkStateStore(ConfigSnapshot.LinkState linkState) {
+        if (!linkState.enabled()) {
+            return null;
+        }
+        LinkStateStore store = new LinkStateStore(new File(this.getDataFolder(), "link-state.bin").toPath(),
+            this.getLogger(), linkState.maxAgeDays(), linkState.flushIntervalSeconds());
+        store.open().whenComplete((entries, error) -> {
+            if (error != null) {
+                this.getLogger().warn("Failed to load link-state.bin, link state will not be persisted: " + error.getMessage());
+            } else {
+                this.getLogger().info("Loaded link state of " + entries + " players");
+            }
+        });
+        return store;
+    }
+
+    private ResponseExecutor buildResponseExecutor(ConfigSnapshot.Responses responses) {
+        return new ResponseExecutor(this, responses.executor(), responses.threads(), responses.maxQueued());
+    }
+
+    private void startConfigWatcher() {
+        try {
+            ConfigWatcher watcher = new ConfigWatcher(new File(this.getDataFolder(), "config.yml").toPath(), () -> {
+                try {
+                    List<String> rebuilt = reloadConfiguration();
+                    this.getLogger().info("config.yml changed - configuration reloaded"
+                            + (rebuilt.isEmpty() ? "" : " (rebuilt " + String.join(", ", rebuilt) + ")"));
+                } catch (RuntimeException e) {
+                    this.getLogger().error("Failed to reload config.yml - keeping the previous configuration: " + e.getMessage());
+                }
+            });
+            watcher.start();
+            this.configWatcher = watcher;
+        } catch (IOException e) {
+            this.getLogger().warn("Failed to watch config.yml - use /link reload after editing it: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read config.yml and atomically swap in the new snapshot
+     *
+     * Hot-path settings take effect immediately; the service client (with its
+     * caches), rate limiter, countdown, webhook receiver and form skeletons are
+     * only rebuilt when their own section changed. Every rebuilt component is
+     * built before the new snapshot is published, so a section that fails to
+     * build leaves the running configuration and components untouched.
+     *
+     * @return Names of the rebuilt components
+     * @throws IllegalStateException If the new config is invalid; the old one stays active
+     */
+    public synchronized List<String> reloadConfiguration() {
+        YamlConfig newConfig = new YamlConfig(new File(this.getDataFolder(), "config.yml").toPath());
+        ConfigSnapshot next = ConfigSnapshot.load(newConfig);
+        ConfigSnapshot previous = this.settings;
+        if (next.service().apiKey().isEmpty()) {
+            throw new IllegalStateException("account_service.api_key is empty");
+        }
+
+        boolean serviceChanged = !next.service().equals(previous.service());
+        boolean rateLimitsChanged = !next.rateLimits().equals(previous.rateLimits());
+        boolean countdownChanged = !next.countdown().equals(previous.countdown());
+        boolean responsesChanged = !next.responses().equals(previous.responses());
+
+        ServiceComponents nextService = null;
+        CommandRateLimiter nextRateLimiter = null;
+        CodeCountdown nextCountdown = null;
+        ResponseExecutor nextExecutor = null;
+        try {
+            if (rateLimitsChanged) {
+                nextRateLimiter = buildCommandRateLimiter(next.rateLimits());
+            }
+            if (countdownChanged) {
+                nextCountdown = buildCodeCountdown(next.countdown());
+            }
+            if (responsesChanged) {
+                nextExecutor = buildResponseExecutor(next.responses());
+            }
+            if (serviceChanged) {
+                // Built last, so nothing after it can fail and leave the new client running
+                nextService = buildServiceClient(next.service());
+            }
+        } catch (RuntimeException e) {
+            if (nextCountdown != null) {
+                nextCountdown.close();
+            }
+            if (nextExecutor != null) {
+                nextExecutor.close();
+            }
+            throw new IllegalStateException("Invalid configuration: " + e.getMessage(), e);
+        }
+
+        // Everything built - publish the snapshot and swap the components in
+        this.config = newConfig;
+        this.settings = next;
+        List<String> rebuilt = new ArrayList<>();
+
+        if (serviceChanged) {
+            DiscordLinkServiceClient oldClient = this.serviceClient;
+            LinkStatePrefetcher oldPrefetcher = this.linkStatePrefetcher;
+            startServiceClient(nextService, next.service());
+            if (oldPrefetcher != null) {
+                oldPrefetcher.close();
+            }
+            if (oldClient != null) {
+                // Let requests already in flight finish before the old client shuts down its lane
+                CompletableFuture.delayedExecutor(previous.service().timeouts().totalSeconds(), TimeUnit.SECONDS)
+                    .execute(oldClient::close);
+            }
+            rebuilt.add("account service");
+        }
+
+        if (rateLimitsChanged) {
+            this.commandRateLimiter = nextRateLimiter;
+            rebuilt.add("rate limits");
+        }
+
+        if (countdownChanged) {
+            CodeCountdown oldCountdown = this.codeCountdown;
+            this.codeCountdown = nextCountdown;
+            if (oldCountdown != null) {
+                oldCountdown.close();
+            }
+            rebuilt.add("countdown");
+        }
+
+        if (responsesChanged) {
+            ResponseExecutor oldExecutor = this.responseExecutor;
+            this.responseExecutor = nextExecutor;
+            // Already queued responses still run on the old executor
+            oldExecutor.close();
+            rebuilt.add("response executor");
+        }
+
+        if (!next.linkState().equals(previous.linkState())) {
+            LinkStateStore oldStore = this.linkStateStore;
+            if (oldStore != null) {
+                // Flush first so the new store loads everything recorded so far
+                oldStore.close();
+            }
+            this.linkStateStore = openLinkStateStore(next.linkState());
+            if (this.serviceClient != null) {
+                this.serviceClient.setLinkStateStore(this.linkStateStore);
+            }
+            rebuilt.add("link state store");
+        }
+
+        if (!next.webhook().equals(previous.webhook())) {
+            if (this.webhookServer != null) {
+                this.webhookServer.stop();
+                this.webhookServer = null;
+            }
+            if (next.webhook().enabled()) {
+                startWebhookServer(next.webhook());
+            }
+            rebuilt.add("webhook");
+        }
+
+        if (!next.metrics().equals(previous.metrics())) {
+            if (this.metricsServer != null) {
+                this.metricsServer.stop();
+                this.metricsServer = null;
+            }
+            if (next.metrics().prometheusEnabled()) {
+                startMetricsServer(next.metrics());
+            }
+            rebuilt.add("metrics endpoint");
+        }
+
+        if (!next.discord().equals(previous.discord()) && this.linkFormTemplates != null) {
+            this.linkFormTemplates.reload();
+            rebuilt.add("link forms");
+        }
+
+        if (next.settings().watchConfig() != previous.settings().watchConfig()) {
+            if (next.settings().watchConfig()) {
+                startConfigWatcher();
+            } else if (this.configWatcher != null) {
+                this.configWatcher.close();
+                this.configWatcher = null;
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Pool for startup work on language files, bounded so a many-core proxy
+     * host does not get one thread per language
+     */
+    private static ExecutorService newLanguagePool() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-Languages-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Copy a shipped language file into the language folder unless it is already there
+     *
+     * Same result as saveResource, but only touches this file, so several can run at once.
+     */
+    private void extractLanguage(File langFolder, String lang) throws IOException {
+        File target = new File(langFolder, lang + ".lang");
+        if (target.exists()) {
+            return;
+        }
+        try (InputStream in = this.getClass().getClassLoader().getResourceAsStream("language/" + lang + ".lang")) {
+            if (in == null) {
+                throw new IOException("not found in the plugin JAR");
+            }
+            Files.copy(in, target.toPath());
+        } catch (FileAlreadyExistsException e) {
+            // Created concurrently - keep the existing file like saveResource does
+        }
+    }
+
+    /**
+     * Language files shipped in the JAR
+     *
+     * language/index.txt is generated at build time from src/main/resources/language;
+     * without it (e.g. running from an IDE) the known locales are checked with getResource
+     */
+    private List<String> readLanguageIndex() {
+        List<String> languages = new ArrayList<>();
+        InputStream index = this.getClass().getClassLoader().getResourceAsStream("language/index.txt");
+        if (index != null) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.endsWith(".lang")) {
+                        languages.add(line.substring(0, line.length() - ".lang".length()));
+                    }
+                }
+                return languages;
+            } catch (IOException e) {
+                this.getLogger().warn("Failed to read language index: " + e.getMessage());
+                languages.clear();
+            }
+        }
+
+        String[] knownLanguages = {"id_ID", "da_DK", "de_DE", "en_GB", "en_US", "es_ES", "es_MX",
+                                   "fr_CA", "fr_FR", "it_IT", "hu_HU", "nl_NL", "nb_NO", "pl_PL",
+                                   "pt_BR", "pt_PT", "sk_SK", "fi_FI", "sv_SE", "tr_TR", "cs_CZ",
+                                   "el_GR", "bg_BG", "ru_RU", "uk_UA", "ja_JP", "zh_CN", "zh_TW",
+                                   "ko_KR", "th_TH"};
+        for (String lang : knownLanguages) {
+            if (this.getClass().getClassLoader().getResource("language/" + lang + ".lang") != null) {
+                languages.add(lang);
+            }
+        }
+        return languages;
+    }
+
+    private void startWebhookServer(ConfigSnapshot.Webhook webhook) {
+        if (webhook.secret().isEmpty()) {
+            this.getLogger().error("SECURITY ERROR: webhook.secret not configured - webhook receiver disabled");
+            return;
+        }
+
+        WebhookServer server = new WebhookServer(
+            new LinkEventHandler(this),
+            webhook.bindAddress(),
+            webhook.port(),
+            webhook.path(),
+            webhook.secret(),
+            webhook.maxClockSkewSeconds(),
+            webhook.threads()
+        );
+        try {
+            server.start();
+            this.webhookServer = server;
+            this.getLogger().info("Webhook receiver listening on " + webhook.bindAddress() + ":" + webhook.port());
+        } catch (IOException e) {
+            this.getLogger().error("Failed to start webhook receiver: " + e.getMessage());
+        }
+    }
+
+    private void startMetricsServer(ConfigSnapshot.Metrics metrics) {
+        MetricsServer server = new MetricsServer(this, metrics.bindAddress(), metrics.port(), metrics.path());
+        try {
+            server.start();
+            this.metricsServer = server;
+            this.getLogger().info("Prometheus metrics available at http://" + metrics.bindAddress() + ":" + metrics.port() + metrics.path());
+        } catch (IOException e) {
+            this.getLogger().error("Failed to start metrics endpoint: " + e.getMessage());
+        }
+    }
+
     @Override
     public void onDisable() {
+        if (this.configWatcher != null) {
+            this.configWatcher.close();
+            this.configWatcher = null;
+        }
+        if (this.webhookServer != null) {
+            this.webhookServer.stop();
+            this.webhookServer = null;
+        }
+        if (this.metricsServer != null) {
+            this.metricsServer.stop();
+            this.metricsServer = null;
+        }
+        if (this.linkStatePrefetcher != null) {
+            this.linkStatePrefetcher.close();
+            this.linkStatePrefetcher = null;
+        }
+        if (this.codeCountdown != null) {
+            this.codeCountdown.close();
+            this.codeCountdown = null;
+        }
+        if (this.responseExecutor != null) {
+            this.responseExecutor.close();
+        }
+        if (this.linkStateStore != null) {
+            this.linkStateStore.close();
+            this.linkStateStore = null;
+        }
         if (this.serviceClient != null) {
+            LinkStatusCache cache = this.serviceClient.getLinkStatusCache();
+            if (cache != null) {
+                this.getLogger().info("Link status cache: " + cache.getHits() + " hits, " + cache.getMisses()
+                        + " misses, " + cache.getEvictions() + " evictions (" + cache.size() + "/" + cache.getMaxEntries() + " entries)");
+            }
             this.serviceClient.close();
         }
         if (accountAdapter != null) {
@@ -154,10 +744,45 @@ public class DiscordLinkPlugin extends Plugin {
         return config;
     }
 
+    /**
+     * @return Per-endpoint AccountService latencies (kept across config reloads)
+     */
+    public ServiceMetrics getServiceMetrics() {
+        return serviceMetrics;
+    }
+
+    /**
+     * @return The current typed config; read this on hot paths instead of getConfiguration()
+     */
+    public ConfigSnapshot getSettings() {
+        return settings;
+    }
+
     public static WaterdogI18n getI18n() {
         return i18n;
     }
 
+    /**
+     * @return Per-session resolved player languages
+     */
+    public PlayerLanguageCache getPlayerLanguages() {
+        return playerLanguages;
+    }
+
+    /**
+     * @return Compiled translations; prefer this over getI18n().tr() on hot paths
+     */
+    public MessageTemplates getMessages() {
+        return messages;
+    }
+
+    /**
+     * @return Pre-rendered link code form skeletons
+     */
+    public LinkFormTemplates getLinkFormTemplates() {
+        return linkFormTemplates;
+    }
+
     public Object getNotificationDispatcher() {
         return notificationDispatcher;
     }
@@ -166,6 +791,45 @@ public class DiscordLinkPlugin extends Plugin {
         return accountAdapter;
     }
 
+    public PlayerIndex getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * @return The command rate limiter, or null if rate limiting is disabled
+     */
+    public CommandRateLimiter getCommandRateLimiter() {
+        return commandRateLimiter;
+    }
+
+    /**
+     * @return The login prefetcher, or null if prefetching is disabled
+     */
+    public LinkStatePrefetcher getLinkStatePrefetcher() {
+        return linkStatePrefetcher;
+    }
+
+    /**
+     * @return The link code countdown, or null if countdowns are disabled
+     */
+    public CodeCountdown getCodeCountdown() {
+        return codeCountdown;
+    }
+
+    /**
+     * @return Executor that sends command responses once AccountService has answered
+     */
+    public ResponseExecutor getResponseExecutor() {
+        return responseExecutor;
+    }
+
+    /**
+     * @return The persisted link state, or null if disabled
+     */
+    public LinkStateStore getLinkStateStore() {
+        return linkStateStore;
+    }
+
     /**
      * Send a notification to a player if they're online and NotificationDispatcher is available
      * Can be used when Discord linking is completed (called from external webhook/API)
@@ -175,60 +839,52 @@ public class DiscordLinkPlugin extends Plugin {
      * @param message The message to send
      */
     public void sendNotification(String targetXuid, String notificationType, String message) {
-        if (notificationDispatcher == null) {
+        NotificationBridge bridge = getNotificationBridge();
+        if (bridge == null) {
             return; // NotificationDispatcher not available
         }
 
         try {
-            // Find player by XUID
-            dev.waterdog.waterdogpe.player.ProxiedPlayer targetPlayer = null;
-            for (dev.waterdog.waterdogpe.player.ProxiedPlayer player : this.getProxy().getPlayers().values()) {
-                if (player.getLoginData().getXuid().equals(targetXuid)) {
-                    targetPlayer = player;
-                    break;
-                }
-            }
-
+            ProxiedPlayer targetPlayer = playerIndex.get(targetXuid);
             if (targetPlayer == null) {
                 return; // Player not online
             }
 
-            // Get NotificationDispatcher's class loader
-            ClassLoader notifClassLoader = ((Plugin) notificationDispatcher).getClass().getClassLoader();
-
-            // Use reflection to load NotificationDispatcher classes
-            Class<?> notificationAPIClass = Class.forName("dev.pigraid.notificationdispatcher.NotificationAPI", true, notifClassLoader);
-            Class<?> notificationTypeClass = Class.forName("dev.pigraid.notificationdispatcher.models.NotificationType", true, notifClassLoader);
-            Class<?> notificationClass = Class.forName("dev.pigraid.notificationdispatcher.models.Notification", true, notifClassLoader);
-
-            // Get the notification type enum value
-            Object typeValue = null;
-            for (Object enumConstant : notificationTypeClass.getEnumConstants()) {
-                if (enumConstant.toString().equals(notificationType)) {
-                    typeValue = enumConstant;
-                    break;
-                }
-            }
-
-            if (typeValue == null) {
+            if (!bridge.send(targetPlayer, notificationType, message)) {
                 this.getLogger().warn("Unknown notification type: " + notificationType);
-                return;
             }
+        } catch (ReflectiveOperationException e) {
+            this.getLogger().warn("Failed to send notification: " + e.getMessage());
+        }
+    }
 
-            // Create a Notification object using reflection (it's a record)
-            java.lang.reflect.Constructor<?> notificationConstructor = notificationClass.getConstructor(String.class, notificationTypeClass);
-            Object notification = notificationConstructor.newInstance(message, typeValue);
+    /**
+     * Get the resolved NotificationDispatcher handles, re-resolving them if
+     * NotificationDispatcher-WDPE was reloaded since they were created
+     *
+     * @return The bridge, or null if NotificationDispatcher-WDPE is not available
+     */
+    private NotificationBridge getNotificationBridge() {
+        if (notificationDispatcher == null) {
+            return null;
+        }
 
-            // Call sendMessage method
-            java.lang.reflect.Method sendMethod = notificationAPIClass.getMethod(
-                "sendMessage",
-                dev.waterdog.waterdogpe.player.ProxiedPlayer.class,
-                notificationClass
-            );
-            sendMethod.invoke(null, targetPlayer, notification);
+        Plugin current = this.getProxy().getPluginManager().getPluginByName("NotificationDispatcher-WDPE");
+        if (current == null) {
+            return null;
+        }
 
-        } catch (ReflectiveOperationException e) {
-            this.getLogger().warn("Failed to send notification: " + e.getMessage());
+        NotificationBridge bridge = notificationBridge;
+        if (bridge == null || !bridge.isFor(current)) {
+            try {
+                bridge = NotificationBridge.resolve(current);
+                this.notificationDispatcher = current;
+                this.notificationBridge = bridge;
+            } catch (ReflectiveOperationException e) {
+                this.getLogger().warn("Failed to resolve NotificationDispatcher-WDPE: " + e.getMessage());
+                return null;
+            }
         }
+        return bridge;
     }
 }
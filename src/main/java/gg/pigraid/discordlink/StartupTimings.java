@@ -0,0 +1,42 @@
+package gg.pigraid.discordlink;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock duration of each onEnable phase, for the startup log line
+ */
+class StartupTimings {
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long phaseStartedAt = startedAt;
+
+    /**
+     * End the current phase under the given name and start the next one
+     */
+    void mark(String phase) {
+        long now = System.nanoTime();
+        phases.put(phase, now - phaseStartedAt);
+        phaseStartedAt = now;
+    }
+
+    long totalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * @return e.g. "config 2ms, account service 14ms, language files 31ms"
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (out.length() > 0) {
+                out.append(", ");
+            }
+            out.append(phase.getKey()).append(' ').append(TimeUnit.NANOSECONDS.toMillis(phase.getValue())).append("ms");
+        }
+        return out.toString();
+    }
+}
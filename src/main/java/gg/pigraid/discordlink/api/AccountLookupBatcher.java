@@ -0,0 +1,135 @@
+package gg.pigraid.discordlink.api;
+
+import gg.pigraid.discordlink.api.models.LinkedAccount;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching stage for account lookups
+ *
+ * Collects XUID lookups for a short window (or until the batch is full),
+ * sends them as one bulk request and fans the results back out to the
+ * per-caller futures. Falls back to single requests for good once the
+ * bulk endpoint answers 404.
+ */
+public class AccountLookupBatcher {
+    private final DiscordLinkServiceClient client;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<LinkedAccount>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private volatile boolean bulkSupported = true;
+
+    AccountLookupBatcher(DiscordLinkServiceClient client, long windowMillis, int maxBatchSize) {
+        this.client = client;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-LookupBatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a lookup for the next batch
+     *
+     * @param xuid Player's XUID
+     * @return CompletableFuture with LinkedAccount, or null if not found; fails if the bulk request fails
+     */
+    public CompletableFuture<LinkedAccount> lookup(String xuid) {
+        if (!bulkSupported) {
+            return client.fetchAccount(xuid);
+        }
+
+        Map<String, CompletableFuture<LinkedAccount>> fullBatch = null;
+        CompletableFuture<LinkedAccount> future;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(xuid, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return future;
+    }
+
+    private Map<String, CompletableFuture<LinkedAccount>> takePending() {
+        Map<String, CompletableFuture<LinkedAccount>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<LinkedAccount>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(Map<String, CompletableFuture<LinkedAccount>> batch) {
+        // Not worth a bulk round trip for a single key
+        if (batch.size() == 1 || !bulkSupported) {
+            batch.forEach(this::sendSingle);
+            return;
+        }
+
+        client.fetchAccountsBulk(new ArrayList<>(batch.keySet())).whenComplete((accounts, ex) -> {
+            if (ex != null) {
+                batch.values().forEach(future -> future.completeExceptionally(ex));
+                return;
+            }
+            if (accounts == null) {
+                // Bulk endpoint not available on this AccountService
+                bulkSupported = false;
+                batch.forEach(this::sendSingle);
+                return;
+            }
+            batch.forEach((xuid, future) -> future.complete(accounts.get(xuid)));
+        });
+    }
+
+    private void sendSingle(String xuid, CompletableFuture<LinkedAccount> future) {
+        client.fetchAccount(xuid).whenComplete((account, ex) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(account);
+            }
+        });
+    }
+
+    public boolean isBulkSupported() {
+        return bulkSupported;
+    }
+
+    /**
+     * Send any queued lookups and stop the batching thread
+     */
+    public void close() {
+        flush();
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package gg.pigraid.discordlink.api;
+
+/**
+ * AccountService endpoints used by the plugin
+ */
+public enum AccountServiceEndpoint {
+    GENERATE_CODE("generate-code"),
+    UNLINK("unlink"),
+    ACCOUNT_FETCH("account-fetch"),
+    HEALTH("health");
+
+    private final String id;
+
+    AccountServiceEndpoint(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return Short identifier used in config keys and logs
+     */
+    public String getId() {
+        return id;
+    }
+}
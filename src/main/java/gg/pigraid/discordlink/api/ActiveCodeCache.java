@@ -0,0 +1,96 @@
+package gg.pigraid.discordlink.api;
+
+import gg.pigraid.discordlink.api.models.GenerateCodeResponse;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers each player's active verification code until it expires
+ *
+ * A repeated /link is answered locally with the same code and a recomputed
+ * remaining time, instead of asking AccountService only to get CODE_EXISTS.
+ */
+public class ActiveCodeCache {
+    /**
+     * Codes closer than this to expiry are not reused, a fresh one is requested
+     */
+    private static final long MIN_REMAINING_MILLIS = 5_000;
+
+    private final ConcurrentHashMap<String, ActiveCode> codes = new ConcurrentHashMap<>();
+
+    /**
+     * Remember the code from a generate-code response
+     */
+    public void put(String xuid, GenerateCodeResponse response) {
+        if (response.getCode() == null) {
+            return;
+        }
+        long expiresAtMillis = parseExpiry(response);
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            codes.put(xuid, new ActiveCode(response.getCode(), response.getExpiresAt(), expiresAtMillis));
+        }
+    }
+
+    /**
+     * Build a CODE_EXISTS response for the player's active code
+     *
+     * @return The response, or null if the player has no code with enough time left
+     */
+    public GenerateCodeResponse get(String xuid) {
+        ActiveCode active = codes.get(xuid);
+        if (active == null) {
+            return null;
+        }
+
+        long remainingMillis = active.expiresAtMillis - System.currentTimeMillis();
+        if (remainingMillis < MIN_REMAINING_MILLIS) {
+            codes.remove(xuid, active);
+            return null;
+        }
+
+        GenerateCodeResponse response = new GenerateCodeResponse();
+        response.setSuccess(false);
+        response.setError("CODE_EXISTS");
+        response.setMessage("Active code reused locally");
+        response.setCode(active.code);
+        response.setExpiresAt(active.expiresAt);
+        response.setExpiresInSeconds((int) (remainingMillis / 1000));
+        return response;
+    }
+
+    public void remove(String xuid) {
+        codes.remove(xuid);
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * Absolute expiry from expiresAt (ISO-8601), falling back to expiresInSeconds
+     */
+    private static long parseExpiry(GenerateCodeResponse response) {
+        if (response.getExpiresAt() != null) {
+            try {
+                return Instant.parse(response.getExpiresAt()).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Fall back to the relative expiry
+            }
+        }
+        return System.currentTimeMillis() + response.getExpiresInSeconds() * 1000L;
+    }
+
+    private static final class ActiveCode {
+        private final String code;
+        private final String expiresAt;
+        private final long expiresAtMillis;
+
+        private ActiveCode(String code, String expiresAt, long expiresAtMillis) {
+            this.code = code;
+            this.expiresAt = expiresAt;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package gg.pigraid.discordlink.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker for AccountService calls
+ *
+ * Tracks the outcome of the last {@code windowSize} calls. Once enough calls
+ * have been seen and the failure rate or slow-call rate crosses its threshold,
+ * the breaker opens and calls fail fast. After {@code openDuration} a limited
+ * number of trial calls are let through (half-open); if they all succeed the
+ * breaker closes again, otherwise it re-opens.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final int slowCallRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    // Ring buffer of recent outcomes, guarded by this
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder rejectedCalls = new LongAdder();
+    private volatile Consumer<State> stateListener;
+
+    /**
+     * @param windowSize Number of recent calls to evaluate
+     * @param minimumCalls Calls required in the window before the breaker can open
+     * @param failureRateThreshold Failure percentage (1-100) that opens the breaker
+     * @param slowCallThresholdMillis Calls slower than this count as slow
+     * @param slowCallRateThreshold Slow-call percentage (1-100) that opens the breaker
+     * @param openDurationSeconds How long the breaker stays open before probing
+     * @param halfOpenCalls Trial calls allowed while half-open
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                          long slowCallThresholdMillis, int slowCallRateThreshold,
+                          long openDurationSeconds, int halfOpenCalls) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos = TimeUnit.SECONDS.toNanos(openDurationSeconds);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.failedCalls = new boolean[this.windowSize];
+        this.slowCalls = new boolean[this.windowSize];
+    }
+
+    /**
+     * Ask for permission to make a call
+     *
+     * @return false if the call should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejectedCalls.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                rejectedCalls.increment();
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    /**
+     * Record the outcome of a permitted call
+     *
+     * @param durationNanos How long the call took
+     * @param failed Whether the call failed (connection error or 5xx)
+     */
+    public synchronized void record(long durationNanos, boolean failed) {
+        boolean slow = durationNanos > slowCallThresholdNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Late result of a call started before the breaker opened
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (failedCalls[windowIndex]) {
+                failureCount--;
+            }
+            if (slowCalls[windowIndex]) {
+                slowCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        failedCalls[windowIndex] = failed;
+        slowCalls[windowIndex] = slow;
+        if (failed) {
+            failureCount++;
+        }
+        if (slow) {
+            slowCount++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+
+        if (windowCount >= minimumCalls
+                && (failureCount * 100 >= failureRateThreshold * windowCount
+                    || slowCount * 100 >= slowCallRateThreshold * windowCount)) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State newState) {
+        if (state == newState) {
+            return;
+        }
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+
+        Consumer<State> listener = stateListener;
+        if (listener != null) {
+            listener.accept(newState);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return Failure percentage over the current window
+     */
+    public synchronized int getFailureRate() {
+        return windowCount == 0 ? 0 : failureCount * 100 / windowCount;
+    }
+
+    /**
+     * @return Slow-call percentage over the current window
+     */
+    public synchronized int getSlowCallRate() {
+        return windowCount == 0 ? 0 : slowCount * 100 / windowCount;
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * Set a listener notified on every state transition
+     */
+    public void setStateListener(Consumer<State> stateListener) {
+        this.stateListener = stateListener;
+    }
+}
@@ -3,14 +3,25 @@ package gg.pigraid.discordlink.api;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
-import gg.pigraid.accountadapter.models.AccountDto;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
 import gg.pigraid.discordlink.api.models.*;
 import gg.pigraid.pighttp.HttpClientFactory;
 import okhttp3.*;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Client for communicating with AccountService Discord linking API
@@ -18,28 +29,79 @@ import java.util.concurrent.TimeUnit;
 public class DiscordLinkServiceClient {
     private final OkHttpClient httpClient;
     private final Gson gson;
+    // Response adapters are resolved once and decode straight from the response stream
+    private final TypeAdapter<GenerateCodeResponse> generateCodeResponseAdapter;
+    private final TypeAdapter<UnlinkResponse> unlinkResponseAdapter;
+    private final TypeAdapter<LinkedAccount> accountAdapter;
+    private final TypeAdapter<BulkAccountResponse> bulkAccountResponseAdapter;
     private final String baseUrl;
     private final String apiKey;
     private final boolean debugRequests;
+    private final LinkStatusCache linkStatusCache;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestPolicy requestPolicy;
+    private final HttpLane httpLane;
+    private final ServiceMetrics metrics;
+    private volatile AccountLookupBatcher lookupBatcher;
+    private volatile SessionLinkStore sessionLinkStore;
+    private volatile LinkStateStore linkStateStore;
+    private final ActiveCodeCache activeCodeCache = new ActiveCodeCache();
+    private volatile ScheduledExecutorService keepWarmScheduler;
+
+    // Single-flight: concurrent identical calls share one in-flight request per XUID
+    private final ConcurrentHashMap<String, CompletableFuture<LinkedAccount>> inFlightAccountLookups = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<GenerateCodeResponse>> inFlightCodeRequests = new ConcurrentHashMap<>();
 
     public DiscordLinkServiceClient(String baseUrl, String apiKey) {
         this(baseUrl, apiKey, false);
     }
 
     public DiscordLinkServiceClient(String baseUrl, String apiKey, boolean debugRequests) {
+        this(baseUrl, apiKey, debugRequests, null, null, RequestPolicy.defaults(), null, HttpProtocol.AUTO, null);
+    }
+
+    /**
+     * @param linkStatusCache Cache for account lookups, or null to always query AccountService
+     * @param circuitBreaker Breaker guarding all API calls, or null to disable fail-fast
+     * @param requestPolicy Per-endpoint timeouts and retry budget
+     * @param httpLane Dedicated dispatcher and connection pool, or null to share PigHttp-WDPE's
+     * @param protocol Protocol used for AccountService connections
+     * @param metrics Registry for per-endpoint latencies, or null for a private one
+     */
+    public DiscordLinkServiceClient(String baseUrl, String apiKey, boolean debugRequests,
+                                    LinkStatusCache linkStatusCache, CircuitBreaker circuitBreaker,
+                                    RequestPolicy requestPolicy, HttpLane httpLane, HttpProtocol protocol,
+                                    ServiceMetrics metrics) {
         this.baseUrl = baseUrl;
         this.apiKey = apiKey;
         this.debugRequests = debugRequests;
+        this.linkStatusCache = linkStatusCache;
+        this.circuitBreaker = circuitBreaker;
+        this.requestPolicy = requestPolicy;
+        this.httpLane = httpLane;
+        this.metrics = metrics != null ? metrics : new ServiceMetrics();
         this.gson = new Gson();
+        this.generateCodeResponseAdapter = gson.getAdapter(GenerateCodeResponse.class);
+        this.unlinkResponseAdapter = gson.getAdapter(UnlinkResponse.class);
+        this.accountAdapter = gson.getAdapter(LinkedAccount.class);
+        this.bulkAccountResponseAdapter = gson.getAdapter(BulkAccountResponse.class);
 
         // PERFORMANCE: Use shared HTTP client with custom retry setting
-        this.httpClient = HttpClientFactory.newBuilder()
-                .connectTimeout(3, TimeUnit.SECONDS)
-                .readTimeout(5, TimeUnit.SECONDS)
-                .writeTimeout(5, TimeUnit.SECONDS)
-                .callTimeout(10, TimeUnit.SECONDS)
-                .retryOnConnectionFailure(false)
-                .build();
+        // Per-endpoint timeouts are applied per call, retries are handled in fetchAccount
+        long maxTimeoutMillis = requestPolicy.getMaxTimeoutMillis();
+        OkHttpClient.Builder builder = HttpClientFactory.newBuilder()
+                .connectTimeout(requestPolicy.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(maxTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(maxTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(requestPolicy.getTotalDeadlineMillis(), TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(false);
+        if (protocol.getProtocols() != null) {
+            builder.protocols(protocol.getProtocols());
+        }
+        if (httpLane != null) {
+            httpLane.apply(builder);
+        }
+        this.httpClient = builder.build();
     }
 
     /**
@@ -53,10 +115,15 @@ public class DiscordLinkServiceClient {
                 .get()
                 .build();
 
-            try (Response response = httpClient.newCall(request).execute()) {
+            long startNanos = System.nanoTime();
+            try (Response response = newCall(request, AccountServiceEndpoint.HEALTH, deadlineFromNow()).execute()) {
+                metrics.record(AccountServiceEndpoint.HEALTH, ServiceMetrics.Outcome.forStatus(response.code()), System.nanoTime() - startNanos);
                 // Accept any response (even 401/404) as "connected"
                 // Just checking if the service is reachable
                 return response.code() > 0;
+            } catch (IOException e) {
+                metrics.record(AccountServiceEndpoint.HEALTH, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
+                throw e;
             }
         } catch (IOException e) {
             if (debugRequests) {
@@ -66,14 +133,80 @@ public class DiscordLinkServiceClient {
         }
     }
 
+    /**
+     * Periodically ping AccountService so pooled connections stay open and the
+     * first /link after idle does not pay for TCP/TLS setup
+     *
+     * @param intervalSeconds Seconds between pings, should be below the pool's keep-alive
+     */
+    public void startKeepWarm(long intervalSeconds) {
+        if (intervalSeconds <= 0 || keepWarmScheduler != null) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-KeepWarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::ping, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        this.keepWarmScheduler = scheduler;
+    }
+
+    /**
+     * Fire-and-forget health request to keep a pooled connection alive
+     */
+    private void ping() {
+        if (isBusy()) {
+            return;
+        }
+        try {
+            Request request = new Request.Builder()
+                .url(baseUrl + "/health")
+                .header("X-Api-Key", apiKey)
+                .get()
+                .build();
+
+            long startNanos = System.nanoTime();
+            newCall(request, AccountServiceEndpoint.HEALTH, deadlineFromNow()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    metrics.record(AccountServiceEndpoint.HEALTH, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
+                    if (debugRequests) {
+                        System.err.println("Keep-warm ping to AccountService failed: " + e.getMessage());
+                    }
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    metrics.record(AccountServiceEndpoint.HEALTH, ServiceMetrics.Outcome.forStatus(response.code()), System.nanoTime() - startNanos);
+                    response.close();
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            if (debugRequests) {
+                System.err.println("Exception in keep-warm ping: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Generate a Discord verification code for a player (async)
+     * Concurrent calls for the same XUID share a single request.
+     * While the player still has an active code, it is returned locally as CODE_EXISTS.
      *
      * @param xuid Player's XUID
      * @param username Player's username
      * @return CompletableFuture with GenerateCodeResponse
      */
     public CompletableFuture<GenerateCodeResponse> generateVerificationCode(String xuid, String username) {
+        GenerateCodeResponse activeCode = activeCodeCache.get(xuid);
+        if (activeCode != null) {
+            return CompletableFuture.completedFuture(activeCode);
+        }
+        return singleFlight(inFlightCodeRequests, xuid, () -> requestVerificationCode(xuid, username));
+    }
+
+    private CompletableFuture<GenerateCodeResponse> requestVerificationCode(String xuid, String username) {
         CompletableFuture<GenerateCodeResponse> future = new CompletableFuture<>();
 
         try {
@@ -90,13 +223,33 @@ public class DiscordLinkServiceClient {
                 .post(body)
                 .build();
 
+            if (isBusy()) {
+                GenerateCodeResponse errorResponse = new GenerateCodeResponse();
+                errorResponse.setSuccess(false);
+                errorResponse.setError("BUSY");
+                errorResponse.setMessage("Account service request queue is full");
+                future.complete(errorResponse);
+                return future;
+            }
+
+            if (!allowRequest()) {
+                GenerateCodeResponse errorResponse = new GenerateCodeResponse();
+                errorResponse.setSuccess(false);
+                errorResponse.setMessage("Failed to connect to account service");
+                future.complete(errorResponse);
+                return future;
+            }
+
             if (debugRequests) {
                 System.out.println("Sending request to generate-code for xuid: " + xuid);
             }
 
-            httpClient.newCall(request).enqueue(new Callback() {
+            long startNanos = System.nanoTime();
+            newCall(request, AccountServiceEndpoint.GENERATE_CODE, deadlineFromNow()).enqueue(new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
+                    recordOutcome(startNanos, true);
+                    metrics.record(AccountServiceEndpoint.GENERATE_CODE, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
                     if (debugRequests) {
                         System.err.println("Failed to generate verification code: " + e.getMessage());
                     }
@@ -108,21 +261,24 @@ public class DiscordLinkServiceClient {
 
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
+                    ServiceMetrics.Outcome outcome = ServiceMetrics.Outcome.forStatus(response.code());
                     try (response) {
-                        String responseBody = response.body() != null ? response.body().string() : "";
-
-                        if (debugRequests) {
-                            System.out.println("Generate-code response: " + response.code() + " - " + responseBody);
-                        }
-
-                        GenerateCodeResponse result = gson.fromJson(responseBody, GenerateCodeResponse.class);
+                        recordOutcome(startNanos, response.code() >= 500);
+                        GenerateCodeResponse result = readBody(response, generateCodeResponseAdapter, "Generate-code");
                         if (result == null) {
                             result = new GenerateCodeResponse();
                             result.setSuccess(false);
                             result.setMessage("Invalid response from server");
+                        } else if ("ALREADY_LINKED".equals(result.getError())) {
+                            // Cached lookup may still say "not linked"
+                            invalidateCachedAccount(xuid);
+                            recordLinkState(xuid, LinkStateStore.State.LINKED);
+                        } else if (result.isSuccess() || "CODE_EXISTS".equals(result.getError())) {
+                            activeCodeCache.put(xuid, result);
                         }
                         future.complete(result);
                     } catch (JsonSyntaxException e) {
+                        outcome = ServiceMetrics.Outcome.PARSE_ERROR;
                         if (debugRequests) {
                             System.err.println("Error parsing generate-code response: " + e.getMessage());
                         }
@@ -130,6 +286,8 @@ public class DiscordLinkServiceClient {
                         errorResponse.setSuccess(false);
                         errorResponse.setMessage("Error processing response");
                         future.complete(errorResponse);
+                    } finally {
+                        metrics.record(AccountServiceEndpoint.GENERATE_CODE, outcome, System.nanoTime() - startNanos);
                     }
                 }
             });
@@ -154,6 +312,17 @@ public class DiscordLinkServiceClient {
      * @return CompletableFuture with UnlinkResponse
      */
     public CompletableFuture<UnlinkResponse> unlinkDiscordAccount(String discordId) {
+        return unlinkDiscordAccount(discordId, null);
+    }
+
+    /**
+     * Unlink Discord account and invalidate the cached lookup of the player
+     *
+     * @param discordId Discord user ID
+     * @param xuid Player's XUID, or null to invalidate every cached lookup
+     * @return CompletableFuture with UnlinkResponse
+     */
+    public CompletableFuture<UnlinkResponse> unlinkDiscordAccount(String discordId, String xuid) {
         CompletableFuture<UnlinkResponse> future = new CompletableFuture<>();
 
         try {
@@ -170,13 +339,33 @@ public class DiscordLinkServiceClient {
                 .post(body)
                 .build();
 
+            if (isBusy()) {
+                UnlinkResponse errorResponse = new UnlinkResponse();
+                errorResponse.setSuccess(false);
+                errorResponse.setError("BUSY");
+                errorResponse.setMessage("Account service request queue is full");
+                future.complete(errorResponse);
+                return future;
+            }
+
+            if (!allowRequest()) {
+                UnlinkResponse errorResponse = new UnlinkResponse();
+                errorResponse.setSuccess(false);
+                errorResponse.setMessage("Failed to connect to account service");
+                future.complete(errorResponse);
+                return future;
+            }
+
             if (debugRequests) {
                 System.out.println("Sending unlink request for Discord ID: " + discordId);
             }
 
-            httpClient.newCall(request).enqueue(new Callback() {
+            long startNanos = System.nanoTime();
+            newCall(request, AccountServiceEndpoint.UNLINK, deadlineFromNow()).enqueue(new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
+                    recordOutcome(startNanos, true);
+                    metrics.record(AccountServiceEndpoint.UNLINK, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
                     if (debugRequests) {
                         System.err.println("Failed to unlink Discord account: " + e.getMessage());
                     }
@@ -188,21 +377,21 @@ public class DiscordLinkServiceClient {
 
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
+                    ServiceMetrics.Outcome outcome = ServiceMetrics.Outcome.forStatus(response.code());
                     try (response) {
-                        String responseBody = response.body() != null ? response.body().string() : "";
-
-                        if (debugRequests) {
-                            System.out.println("Unlink response: " + response.code() + " - " + responseBody);
-                        }
-
-                        UnlinkResponse result = gson.fromJson(responseBody, UnlinkResponse.class);
+                        recordOutcome(startNanos, response.code() >= 500);
+                        UnlinkResponse result = readBody(response, unlinkResponseAdapter, "Unlink");
                         if (result == null) {
                             result = new UnlinkResponse();
                             result.setSuccess(false);
                             result.setMessage("Invalid response from server");
+                        } else if (result.isSuccess()) {
+                            invalidateCachedAccount(xuid);
+                            recordLinkState(xuid, LinkStateStore.State.NOT_LINKED);
                         }
                         future.complete(result);
                     } catch (JsonSyntaxException e) {
+                        outcome = ServiceMetrics.Outcome.PARSE_ERROR;
                         if (debugRequests) {
                             System.err.println("Error parsing unlink response: " + e.getMessage());
                         }
@@ -210,6 +399,8 @@ public class DiscordLinkServiceClient {
                         errorResponse.setSuccess(false);
                         errorResponse.setMessage("Error processing response");
                         future.complete(errorResponse);
+                    } finally {
+                        metrics.record(AccountServiceEndpoint.UNLINK, outcome, System.nanoTime() - startNanos);
                     }
                 }
             });
@@ -228,12 +419,50 @@ public class DiscordLinkServiceClient {
 
     /**
      * Get account by XUID (to retrieve Discord link info)
+     * Concurrent calls for the same XUID share a single request.
      *
      * @param xuid Player's XUID
-     * @return CompletableFuture with AccountDto
+     * @return CompletableFuture with the account's link projection, or null if there is no account
      */
-    public CompletableFuture<AccountDto> getAccountByXuid(String xuid) {
-        CompletableFuture<AccountDto> future = new CompletableFuture<>();
+    public CompletableFuture<LinkedAccount> getAccountByXuid(String xuid) {
+        SessionLinkStore sessionStore = sessionLinkStore;
+        if (sessionStore != null) {
+            LinkStatusCache.Lookup held = sessionStore.get(xuid);
+            if (held != null) {
+                return CompletableFuture.completedFuture(held.getAccount());
+            }
+        }
+
+        if (linkStatusCache != null) {
+            LinkStatusCache.Lookup cached = linkStatusCache.get(xuid);
+            if (cached != null) {
+                if (sessionStore != null) {
+                    sessionStore.update(xuid, cached.getAccount());
+                }
+                return CompletableFuture.completedFuture(cached.getAccount());
+            }
+        }
+
+        AccountLookupBatcher batcher = lookupBatcher;
+        if (batcher != null) {
+            return singleFlight(inFlightAccountLookups, xuid, () -> batcher.lookup(xuid));
+        }
+        return singleFlight(inFlightAccountLookups, xuid, () -> fetchAccount(xuid));
+    }
+
+    /**
+     * Look up an account at AccountService, skipping the cache and session store
+     * Used to revalidate persisted link state; the result is remembered as usual.
+     *
+     * @param xuid Player's XUID
+     * @return CompletableFuture with the account's link projection, or null if there is no account
+     */
+    public CompletableFuture<LinkedAccount> revalidateAccount(String xuid) {
+        return singleFlight(inFlightAccountLookups, xuid, () -> fetchAccount(xuid));
+    }
+
+    CompletableFuture<LinkedAccount> fetchAccount(String xuid) {
+        CompletableFuture<LinkedAccount> future = new CompletableFuture<>();
 
         try {
             Request request = new Request.Builder()
@@ -242,55 +471,476 @@ public class DiscordLinkServiceClient {
                 .get()
                 .build();
 
+            fetchAccountAttempt(xuid, request, 1, deadlineFromNow(), future);
+        } catch (IllegalArgumentException e) {
             if (debugRequests) {
-                System.out.println("Fetching account for xuid: " + xuid);
+                System.err.println("Exception in getAccountByXuid: " + e.getMessage());
             }
+            future.complete(null);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send one attempt of an account fetch; GETs are idempotent, so failed
+     * attempts are retried within the request policy's budget
+     */
+    private void fetchAccountAttempt(String xuid, Request request, int attempt, long deadlineNanos,
+                                     CompletableFuture<LinkedAccount> future) {
+        if (isBusy()) {
+            future.completeExceptionally(new ServiceBusyException("Account service request queue is full"));
+            return;
+        }
 
-            httpClient.newCall(request).enqueue(new Callback() {
+        if (!allowRequest()) {
+            future.complete(null);
+            return;
+        }
+
+        if (debugRequests) {
+            System.out.println("Fetching account for xuid: " + xuid + (attempt > 1 ? " (attempt " + attempt + ")" : ""));
+        }
+
+        long startNanos = System.nanoTime();
+        newCall(request, AccountServiceEndpoint.ACCOUNT_FETCH, deadlineNanos).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                recordOutcome(startNanos, true);
+                metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
+                if (debugRequests) {
+                    System.err.println("Failed to fetch account: " + e.getMessage());
+                }
+                if (!retryAccountFetch(xuid, request, attempt, deadlineNanos, future)) {
+                    future.complete(null);
+                }
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                ServiceMetrics.Outcome outcome = ServiceMetrics.Outcome.forStatus(response.code());
+                try (response) {
+                    recordOutcome(startNanos, response.code() >= 500);
+                    if (response.isSuccessful() && response.body() != null) {
+                        LinkedAccount account = readBody(response, accountAdapter, "Account");
+                        if (account != null) {
+                            rememberAccount(xuid, account);
+                        }
+                        future.complete(account);
+                    } else {
+                        if (debugRequests) {
+                            System.err.println("Failed to fetch account: " + response.code());
+                        }
+                        if (response.code() >= 500 && retryAccountFetch(xuid, request, attempt, deadlineNanos, future)) {
+                            return;
+                        }
+                        // Only a definitive "not found" is cached, never transient errors
+                        if (response.code() == 404) {
+                            rememberAccount(xuid, null);
+                        }
+                        future.complete(null);
+                    }
+                } catch (JsonSyntaxException e) {
+                    outcome = ServiceMetrics.Outcome.PARSE_ERROR;
+                    if (debugRequests) {
+                        System.err.println("Error parsing account response: " + e.getMessage());
+                    }
+                    future.complete(null);
+                } finally {
+                    metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, outcome, System.nanoTime() - startNanos);
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedule the next account fetch attempt after a jittered backoff
+     *
+     * @return false if the attempt or time budget is used up
+     */
+    private boolean retryAccountFetch(String xuid, Request request, int attempt, long deadlineNanos,
+                                      CompletableFuture<LinkedAccount> future) {
+        if (attempt >= requestPolicy.getMaxAttempts()) {
+            return false;
+        }
+        long backoffMillis = requestPolicy.backoffMillis(attempt);
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMillis - backoffMillis < RequestPolicy.MIN_ATTEMPT_MILLIS) {
+            return false;
+        }
+
+        if (debugRequests) {
+            System.out.println("Retrying account fetch for xuid " + xuid + " in " + backoffMillis + "ms");
+        }
+        CompletableFuture.runAsync(
+            () -> fetchAccountAttempt(xuid, request, attempt + 1, deadlineNanos, future),
+            CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS)
+        );
+        return true;
+    }
+
+    /**
+     * Fetch several accounts with one bulk request
+     *
+     * @param xuids XUIDs to look up
+     * @return CompletableFuture with found accounts by XUID, or null if AccountService
+     *         has no bulk endpoint (404); fails if the request fails, so an outage is
+     *         never mistaken for "no account"
+     */
+    CompletableFuture<Map<String, LinkedAccount>> fetchAccountsBulk(List<String> xuids) {
+        CompletableFuture<Map<String, LinkedAccount>> future = new CompletableFuture<>();
+
+        try {
+            RequestBody body = RequestBody.create(
+                gson.toJson(new BulkAccountRequest(xuids)),
+                MediaType.get("application/json")
+            );
+
+            Request request = new Request.Builder()
+                .url(baseUrl + "/bulk")
+                .header("X-Api-Key", apiKey)
+                .post(body)
+                .build();
+
+            if (isBusy()) {
+                future.completeExceptionally(new ServiceBusyException("Account service request queue is full"));
+                return future;
+            }
+
+            if (!allowRequest()) {
+                future.completeExceptionally(new IOException("Account service circuit breaker is open"));
+                return future;
+            }
+
+            if (debugRequests) {
+                System.out.println("Fetching " + xuids.size() + " accounts in bulk");
+            }
+
+            long startNanos = System.nanoTime();
+            newCall(request, AccountServiceEndpoint.ACCOUNT_FETCH, deadlineFromNow()).enqueue(new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
+                    recordOutcome(startNanos, true);
+                    metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, ServiceMetrics.Outcome.CONNECTION_FAILURE, System.nanoTime() - startNanos);
                     if (debugRequests) {
-                        System.err.println("Failed to fetch account: " + e.getMessage());
+                        System.err.println("Failed to fetch accounts in bulk: " + e.getMessage());
                     }
-                    future.complete(null);
+                    future.completeExceptionally(e);
                 }
 
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
+                    ServiceMetrics.Outcome outcome = ServiceMetrics.Outcome.forStatus(response.code());
                     try (response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String responseBody = response.body().string();
-                            AccountDto account = gson.fromJson(responseBody, AccountDto.class);
-                            future.complete(account);
-                        } else {
+                        recordOutcome(startNanos, response.code() >= 500);
+                        if (response.code() == 404) {
                             if (debugRequests) {
-                                System.err.println("Failed to fetch account: " + response.code());
+                                System.err.println("Bulk account endpoint not available, falling back to single requests");
                             }
                             future.complete(null);
+                            return;
                         }
+                        if (!response.isSuccessful() || response.body() == null) {
+                            if (debugRequests) {
+                                System.err.println("Failed to fetch accounts in bulk: " + response.code());
+                            }
+                            future.completeExceptionally(new IOException("Bulk account request failed: " + response.code()));
+                            return;
+                        }
+
+                        BulkAccountResponse result = readBody(response, bulkAccountResponseAdapter, "Bulk account");
+                        Map<String, LinkedAccount> accounts = result != null && result.getAccounts() != null
+                            ? result.getAccounts()
+                            : Collections.emptyMap();
+                        for (String xuid : xuids) {
+                            rememberAccount(xuid, accounts.get(xuid));
+                        }
+                        future.complete(accounts);
                     } catch (JsonSyntaxException e) {
+                        outcome = ServiceMetrics.Outcome.PARSE_ERROR;
                         if (debugRequests) {
-                            System.err.println("Error parsing account response: " + e.getMessage());
+                            System.err.println("Error parsing bulk account response: " + e.getMessage());
                         }
-                        future.complete(null);
+                        future.completeExceptionally(e);
+                    } finally {
+                        metrics.record(AccountServiceEndpoint.ACCOUNT_FETCH, outcome, System.nanoTime() - startNanos);
                     }
                 }
             });
         } catch (IllegalArgumentException e) {
             if (debugRequests) {
-                System.err.println("Exception in getAccountByXuid: " + e.getMessage());
+                System.err.println("Exception in fetchAccountsBulk: " + e.getMessage());
             }
-            future.complete(null);
+            future.completeExceptionally(e);
         }
 
         return future;
     }
 
+    /**
+     * Decode a response body with a cached adapter
+     * Streams from the response source unless debug logging needs the raw body;
+     * both paths decode through the same lenient JsonReader.
+     *
+     * @return The decoded object, or null if the body is missing or empty
+     * @throws JsonSyntaxException if the body is malformed or cannot be read
+     */
+    private <T> T readBody(Response response, TypeAdapter<T> adapter, String label) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return null;
+        }
+
+        try {
+            Reader source;
+            if (debugRequests) {
+                String raw = body.string();
+                System.out.println(label + " response: " + response.code() + " - " + raw);
+                source = new StringReader(raw);
+            } else {
+                source = body.charStream();
+            }
+
+            JsonReader reader = gson.newJsonReader(source);
+            reader.setLenient(true); // same leniency as Gson.fromJson
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                // Empty body
+                return null;
+            }
+            return adapter.read(reader);
+        } catch (IOException e) {
+            throw new JsonSyntaxException("Failed to read response body", e);
+        } catch (IllegalStateException e) {
+            // Hand-written adapters report unexpected tokens this way
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Create a call with the endpoint's timeout, cut short by the request deadline
+     */
+    private Call newCall(Request request, AccountServiceEndpoint endpoint, long deadlineNanos) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        long timeoutMillis = Math.max(1, Math.min(requestPolicy.getTimeoutMillis(endpoint), remainingMillis));
+
+        Call call = httpClient.newCall(request);
+        call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        return call;
+    }
+
+    private long deadlineFromNow() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestPolicy.getTotalDeadlineMillis());
+    }
+
+    /**
+     * @return true if the dedicated HTTP lane's queue is full and the request should be rejected
+     */
+    private boolean isBusy() {
+        if (httpLane == null || !httpLane.isSaturated()) {
+            return false;
+        }
+        if (debugRequests) {
+            System.err.println("DiscordLink request queue is full - rejecting request to AccountService");
+        }
+        return true;
+    }
+
+    /**
+     * Check the circuit breaker before sending a request
+     *
+     * @return false if AccountService is considered down and the call should fail fast
+     */
+    private boolean allowRequest() {
+        if (circuitBreaker == null || circuitBreaker.tryAcquire()) {
+            return true;
+        }
+        if (debugRequests) {
+            System.err.println("Circuit breaker open - skipping request to AccountService");
+        }
+        return false;
+    }
+
+    private void recordOutcome(long startNanos, boolean failed) {
+        if (circuitBreaker != null) {
+            circuitBreaker.record(System.nanoTime() - startNanos, failed);
+        }
+    }
+
+    /**
+     * Route account lookups through a micro-batching stage
+     *
+     * @param windowMillis How long to collect lookups before sending a batch
+     * @param maxBatchSize Send immediately once this many lookups are queued
+     */
+    public void enableLookupBatching(long windowMillis, int maxBatchSize) {
+        this.lookupBatcher = new AccountLookupBatcher(this, windowMillis, maxBatchSize);
+    }
+
+    /**
+     * Join the in-flight call for a key, or start one if none is running.
+     * The entry is removed before the shared future completes, so callers
+     * reacting to the result start a fresh request.
+     */
+    private <T> CompletableFuture<T> singleFlight(ConcurrentHashMap<String, CompletableFuture<T>> inFlight,
+                                                  String key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            if (debugRequests) {
+                System.out.println("Joining in-flight request for xuid: " + key);
+            }
+            return existing;
+        }
+
+        CompletableFuture<T> request;
+        try {
+            request = call.get();
+        } catch (RuntimeException e) {
+            // Never leave a future in the map that nothing will complete
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+            return shared;
+        }
+
+        request.whenComplete((result, ex) -> {
+            inFlight.remove(key, shared);
+            if (ex != null) {
+                shared.completeExceptionally(ex);
+            } else {
+                shared.complete(result);
+            }
+        });
+        return shared;
+    }
+
+    /**
+     * Store a definitive lookup result in the cache, session store and link state store
+     *
+     * @param account The account, or null if AccountService reported it as not found
+     */
+    private void rememberAccount(String xuid, LinkedAccount account) {
+        if (linkStatusCache != null) {
+            if (account != null) {
+                linkStatusCache.put(xuid, account);
+            } else {
+                linkStatusCache.putNegative(xuid);
+            }
+        }
+        SessionLinkStore sessionStore = sessionLinkStore;
+        if (sessionStore != null) {
+            sessionStore.update(xuid, account);
+        }
+        LinkStateStore stateStore = linkStateStore;
+        if (stateStore != null) {
+            LinkStateStore.State state = account == null ? LinkStateStore.State.NO_ACCOUNT
+                : account.isLinked() ? LinkStateStore.State.LINKED : LinkStateStore.State.NOT_LINKED;
+            stateStore.recordLookup(xuid, state);
+        }
+    }
+
+    private void recordLinkState(String xuid, LinkStateStore.State state) {
+        LinkStateStore stateStore = linkStateStore;
+        if (stateStore != null && xuid != null) {
+            stateStore.record(xuid, state);
+        }
+    }
+
+    /**
+     * Drop the cached account lookup (and active code) for a player
+     *
+     * @param xuid Player's XUID, or null to drop every cached lookup
+     */
+    public void invalidateCachedAccount(String xuid) {
+        if (xuid != null) {
+            activeCodeCache.remove(xuid);
+        }
+        SessionLinkStore sessionStore = sessionLinkStore;
+        if (sessionStore != null) {
+            if (xuid == null) {
+                sessionStore.invalidateAll();
+            } else {
+                sessionStore.invalidate(xuid);
+            }
+        }
+        if (linkStatusCache == null) {
+            return;
+        }
+        if (xuid == null) {
+            linkStatusCache.invalidateAll();
+        } else {
+            linkStatusCache.invalidate(xuid);
+        }
+    }
+
+    /**
+     * Hold lookup results of tracked (online) players for their whole session
+     */
+    public SessionLinkStore enableSessionLinkStore() {
+        SessionLinkStore sessionStore = new SessionLinkStore();
+        this.sessionLinkStore = sessionStore;
+        return sessionStore;
+    }
+
+    public SessionLinkStore getSessionLinkStore() {
+        return sessionLinkStore;
+    }
+
+    /**
+     * Persist confirmed link states (lookups, link and unlink responses) to this store
+     *
+     * @param linkStateStore The store, or null to stop recording
+     */
+    public void setLinkStateStore(LinkStateStore linkStateStore) {
+        this.linkStateStore = linkStateStore;
+    }
+
+    /**
+     * Forget a player's active code (on disconnect)
+     */
+    public void forgetActiveCode(String xuid) {
+        activeCodeCache.remove(xuid);
+    }
+
+    public ActiveCodeCache getActiveCodeCache() {
+        return activeCodeCache;
+    }
+
+    public LinkStatusCache getLinkStatusCache() {
+        return linkStatusCache;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    public HttpLane getHttpLane() {
+        return httpLane;
+    }
+
     /**
      * Close the HTTP client and release resources
-     * Note: PigHttp-WDPE manages shared resources, so no cleanup needed here
+     * Note: PigHttp-WDPE manages shared resources, only our own keep-warm and
+     * batching threads and the dedicated HTTP lane are released here
      */
     public void close() {
-        // No-op: PigHttp-WDPE manages lifecycle
+        ScheduledExecutorService scheduler = keepWarmScheduler;
+        if (scheduler != null) {
+            keepWarmScheduler = null;
+            scheduler.shutdownNow();
+        }
+        AccountLookupBatcher batcher = lookupBatcher;
+        if (batcher != null) {
+            lookupBatcher = null;
+            batcher.close();
+        }
+        if (httpLane != null) {
+            httpLane.close();
+        }
     }
 }
@@ -0,0 +1,79 @@
+package gg.pigraid.discordlink.api;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated OkHttp dispatcher and connection pool for DiscordLink traffic
+ *
+ * Keeps DiscordLink bursts from starving other PigHttp-WDPE consumers on the
+ * proxy (and the other way around). Requests beyond the queue-depth limit
+ * are rejected instead of waiting for a dispatcher slot.
+ */
+public class HttpLane {
+    private final Dispatcher dispatcher;
+    private final ConnectionPool connectionPool;
+    private final int maxQueuedRequests;
+
+    /**
+     * @param maxRequests Maximum concurrent requests
+     * @param maxRequestsPerHost Maximum concurrent requests to AccountService
+     * @param maxQueuedRequests Queued requests beyond which new requests are rejected
+     * @param maxIdleConnections Idle connections kept in the pool
+     * @param keepAliveSeconds How long idle connections are kept
+     */
+    public HttpLane(int maxRequests, int maxRequestsPerHost, int maxQueuedRequests,
+                    int maxIdleConnections, long keepAliveSeconds) {
+        this.dispatcher = new Dispatcher();
+        this.dispatcher.setMaxRequests(maxRequests);
+        this.dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        this.connectionPool = new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
+    /**
+     * Route a client builder's traffic through this lane
+     */
+    public OkHttpClient.Builder apply(OkHttpClient.Builder builder) {
+        return builder.dispatcher(dispatcher).connectionPool(connectionPool);
+    }
+
+    /**
+     * @return true if the queue is full and new requests should be rejected
+     */
+    public boolean isSaturated() {
+        return dispatcher.queuedCallsCount() >= maxQueuedRequests;
+    }
+
+    public int getQueuedCalls() {
+        return dispatcher.queuedCallsCount();
+    }
+
+    public int getRunningCalls() {
+        return dispatcher.runningCallsCount();
+    }
+
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    public int getIdleConnections() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    public int getTotalConnections() {
+        return connectionPool.connectionCount();
+    }
+
+    /**
+     * Cancel outstanding calls and release threads and connections
+     */
+    public void close() {
+        dispatcher.cancelAll();
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+    }
+}
@@ -0,0 +1,56 @@
+package gg.pigraid.discordlink.api;
+
+import okhttp3.Protocol;
+
+import java.util.List;
+
+/**
+ * Protocol used to talk to AccountService
+ */
+public enum HttpProtocol {
+    /**
+     * OkHttp's default: HTTP/2 where TLS negotiates it (ALPN), HTTP/1.1 otherwise
+     */
+    AUTO(null),
+    /**
+     * Plain HTTP/1.1 only, one request per connection at a time
+     */
+    HTTP1(List.of(Protocol.HTTP_1_1)),
+    /**
+     * HTTP/2 negotiated over TLS (ALPN), falling back to HTTP/1.1
+     */
+    H2(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)),
+    /**
+     * Cleartext HTTP/2 with prior knowledge, for in-cluster plaintext endpoints
+     */
+    H2C(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+
+    private final List<Protocol> protocols;
+
+    HttpProtocol(List<Protocol> protocols) {
+        this.protocols = protocols;
+    }
+
+    /**
+     * @return Protocols to pin on the client, or null to leave OkHttp's default
+     */
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * Parse a config value ("auto", "http1", "h2" or "h2c")
+     *
+     * @return The matching protocol, or AUTO if unknown
+     */
+    public static HttpProtocol fromConfig(String value) {
+        if (value != null) {
+            for (HttpProtocol protocol : values()) {
+                if (protocol.name().equalsIgnoreCase(value.trim())) {
+                    return protocol;
+                }
+            }
+        }
+        return AUTO;
+    }
+}
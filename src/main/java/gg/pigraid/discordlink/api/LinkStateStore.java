@@ -0,0 +1,485 @@
+package gg.pigraid.discordlink.api;
+
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Link state of every player seen, kept on disk so it survives proxy restarts
+ *
+ * Each XUID maps to a {@link State} and the time it was last confirmed by
+ * AccountService or a webhook event. In memory the entries live in an
+ * open-addressing table of primitive arrays (about 26 bytes per entry at a
+ * million players). On disk the store is an append-only log of fixed 13-byte
+ * records where later records win; once the log holds more than twice as many
+ * records as there are live entries it is rewritten with only the live ones.
+ * Loading and all file I/O run on one background thread, so recording a state
+ * is a table update plus a buffered append.
+ */
+public class LinkStateStore {
+
+    public enum State {
+        NO_ACCOUNT,
+        NOT_LINKED,
+        LINKED
+    }
+
+    private static final State[] STATES = State.values();
+    private static final int MAGIC = 0x444C5331; // "DLS1"
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int RECORD_BYTES = Long.BYTES + 1 + Integer.BYTES;
+    // Timestamps are stored as int seconds since 2020-01-01
+    private static final long EPOCH_SECONDS = 1_577_836_800L;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long MIN_COMPACTION_RECORDS = 10_000;
+    private static final int MAX_PENDING_BYTES = 8 * 1024 * 1024;
+
+    private final Path file;
+    private final Logger logger;
+    private final long maxAgeSeconds;
+    private final int flushIntervalSeconds;
+    private final ScheduledExecutorService io;
+
+    // Open-addressing table with linear probing, guarded by this; key 0 marks an empty slot
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int[] times = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Records waiting to be appended, guarded by this
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private boolean pendingOverflow;
+
+    // Only used on the io thread
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private volatile long logRecords;
+
+    private volatile boolean loaded;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param file Log file, created on first use
+     * @param logger Plugin logger for write failures
+     * @param maxAgeDays Entries not confirmed for this long are ignored and dropped on compaction (0 keeps them forever)
+     * @param flushIntervalSeconds Seconds between appends to the log
+     */
+    public LinkStateStore(Path file, Logger logger, int maxAgeDays, int flushIntervalSeconds) {
+        this.file = file;
+        this.logger = logger;
+        this.maxAgeSeconds = TimeUnit.DAYS.toSeconds(Math.max(0, maxAgeDays));
+        this.flushIntervalSeconds = Math.max(1, flushIntervalSeconds);
+        this.io = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-LinkState");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the log in the background and start appending to it
+     * States recorded before loading finishes are kept over older ones from disk.
+     *
+     * @return Number of entries once loaded
+     */
+    public CompletableFuture<Integer> open() {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        io.execute(() -> {
+            int entries;
+            try {
+                entries = load();
+            } catch (IOException | RuntimeException e) {
+                loaded = true;
+                result.completeExceptionally(e);
+                return;
+            }
+            loaded = true;
+            result.complete(entries);
+        });
+        io.scheduleWithFixedDelay(this::flushQuietly, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+        return result;
+    }
+
+    /**
+     * @return The known state, or null if the player is unknown (or not loaded yet) or the entry is too old
+     */
+    public Entry get(String xuid) {
+        long key = parseXuid(xuid);
+        if (key <= 0) {
+            return null;
+        }
+        int time;
+        byte state;
+        synchronized (this) {
+            int index = slotOf(key);
+            if (keys[index] == 0) {
+                return null;
+            }
+            time = times[index];
+            state = states[index];
+        }
+        if (maxAgeSeconds > 0 && nowSeconds() - time > maxAgeSeconds) {
+            return null;
+        }
+        return new Entry(STATES[state], (time + EPOCH_SECONDS) * 1000L);
+    }
+
+    /**
+     * Record a state confirmed just now (webhook event, link or unlink response)
+     */
+    public void record(String xuid, State state) {
+        long key = parseXuid(xuid);
+        if (key <= 0) {
+            return;
+        }
+        int now = nowSeconds();
+        synchronized (this) {
+            put(key, (byte) state.ordinal(), now);
+            append(key, (byte) state.ordinal(), now);
+        }
+    }
+
+    /**
+     * Record the result of an account lookup
+     * Lookups finishing before the log is loaded are ignored, so they cannot
+     * shadow the state on disk.
+     */
+    public void recordLookup(String xuid, State state) {
+        if (loaded) {
+            record(xuid, state);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return Records in the log file, including superseded ones
+     */
+    public long getLogRecords() {
+        return logRecords;
+    }
+
+    /**
+     * Write pending records and close the log (waits up to 10 seconds); later calls do nothing
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        Future<?> done = io.submit(() -> {
+            try {
+                flush();
+                if (channel != null) {
+                    channel.force(false);
+                    channel.close();
+                    channel = null;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to write link state store: " + e.getMessage());
+            }
+        });
+        try {
+            done.get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Failed to close link state store: " + e.getMessage());
+        }
+        io.shutdownNow();
+    }
+
+    private int load() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = log.size();
+        long records = 0;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (length >= HEADER_BYTES && log.read(header, 0) == HEADER_BYTES && header.getInt(0) == MAGIC) {
+            records = (length - HEADER_BYTES) / RECORD_BYTES;
+            long end = HEADER_BYTES + records * RECORD_BYTES;
+            long oldest = maxAgeSeconds > 0 ? nowSeconds() - maxAgeSeconds : Long.MIN_VALUE;
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+            long position = HEADER_BYTES;
+            while (position < end) {
+                buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + end - position));
+                int read = log.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                synchronized (this) {
+                    while (buffer.remaining() >= RECORD_BYTES) {
+                        long key = buffer.getLong();
+                        byte state = buffer.get();
+                        int time = buffer.getInt();
+                        if (key > 0 && state >= 0 && state < STATES.length && time >= oldest) {
+                            putIfNewer(key, state, time);
+                        }
+                    }
+                }
+                buffer.compact();
+            }
+            if (end < length) {
+                // Torn record from a crash mid-append
+                log.truncate(end);
+            }
+        } else {
+            // Empty, foreign or corrupt file - start over
+            log.truncate(0);
+            header.clear();
+            header.putInt(MAGIC).flip();
+            log.write(header, 0);
+        }
+
+        log.position(log.size());
+        this.channel = log;
+        this.logRecords = records;
+        if (needsCompaction()) {
+            compact();
+        }
+        return size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write link state store: " + e.getMessage());
+        }
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer out;
+        boolean overflow;
+        synchronized (this) {
+            overflow = pendingOverflow;
+            if (!overflow && pending.position() == 0) {
+                return;
+            }
+            out = pending;
+            pending = writeBuffer;
+            writeBuffer = out;
+            pending.clear();
+            pendingOverflow = false;
+        }
+
+        if (channel == null || overflow) {
+            out.clear();
+            if (channel != null) {
+                // Records were dropped while the disk fell behind; memory has all of them
+                compact();
+            }
+            return;
+        }
+
+        out.flip();
+        long appended = out.remaining() / RECORD_BYTES;
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+        logRecords += appended;
+        if (needsCompaction()) {
+            compact();
+        }
+    }
+
+    private boolean needsCompaction() {
+        return logRecords > Math.max(MIN_COMPACTION_RECORDS, 2L * size());
+    }
+
+    /**
+     * Rewrite the log with only live entries, via a temporary file and an atomic move
+     */
+    private void compact() throws IOException {
+        ByteBuffer snapshot;
+        int live;
+        synchronized (this) {
+            if (maxAgeSeconds > 0) {
+                dropOlderThan(nowSeconds() - maxAgeSeconds);
+            }
+            live = size;
+            snapshot = ByteBuffer.allocate(HEADER_BYTES + live * RECORD_BYTES);
+            snapshot.putInt(MAGIC);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    snapshot.putLong(keys[i]).put(states[i]).putInt(times[i]);
+                }
+            }
+        }
+        snapshot.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (snapshot.hasRemaining()) {
+                out.write(snapshot);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        logRecords = live;
+    }
+
+    private void append(long key, byte state, int time) {
+        if (pendingOverflow) {
+            return;
+        }
+        if (pending.remaining() < RECORD_BYTES) {
+            if (pending.capacity() >= MAX_PENDING_BYTES) {
+                pendingOverflow = true;
+                return;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.putLong(key).put(state).putInt(time);
+    }
+
+    /**
+     * @return Index of the key, or of the empty slot where it would go
+     */
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void put(long key, byte state, int time) {
+        int index = slotOf(key);
+        if (keys[index] == 0) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                rehash(keys.length * 2, Long.MIN_VALUE);
+                index = slotOf(key);
+            }
+            keys[index] = key;
+            size++;
+        }
+        states[index] = state;
+        times[index] = time;
+    }
+
+    private void putIfNewer(long key, byte state, int time) {
+        int index = slotOf(key);
+        if (keys[index] == key && times[index] > time) {
+            return;
+        }
+        put(key, state, time);
+    }
+
+    private void dropOlderThan(long oldest) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && times[i] < oldest) {
+                rehash(keys.length, oldest);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the table, dropping entries older than {@code oldest}
+     */
+    private void rehash(int capacity, long oldest) {
+        long[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldTimes = times;
+        keys = new long[capacity];
+        states = new byte[capacity];
+        times = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0 && oldTimes[i] >= oldest) {
+                int index = slotOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                states[index] = oldStates[i];
+                times[index] = oldTimes[i];
+                size++;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int nowSeconds() {
+        return (int) (System.currentTimeMillis() / 1000 - EPOCH_SECONDS);
+    }
+
+    /**
+     * @return The XUID as a positive number, or -1 if it cannot be stored (offline mode, malformed)
+     */
+    private static long parseXuid(String xuid) {
+        if (xuid == null || xuid.isEmpty() || xuid.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < xuid.length(); i++) {
+            int digit = xuid.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value > 0 ? value : -1;
+    }
+
+    /**
+     * A stored state and when it was last confirmed
+     */
+    public static final class Entry {
+        private final State state;
+        private final long confirmedAtMillis;
+
+        private Entry(State state, long confirmedAtMillis) {
+            this.state = state;
+            this.confirmedAtMillis = confirmedAtMillis;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getConfirmedAtMillis() {
+            return confirmedAtMillis;
+        }
+
+        public long getAgeSeconds() {
+            return Math.max(0, (System.currentTimeMillis() - confirmedAtMillis) / 1000);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package gg.pigraid.discordlink.api;
+
+import gg.pigraid.discordlink.api.models.LinkedAccount;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded per-XUID cache of account lookups from AccountService
+ *
+ * Entries expire after a TTL and the least recently used entry is evicted
+ * once the cache is full. A missing account ("not linked") is cached as a
+ * negative entry with its own, usually shorter, TTL.
+ */
+public class LinkStatusCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries Maximum number of cached XUIDs
+     * @param ttlSeconds Time-to-live for found accounts
+     * @param negativeTtlSeconds Time-to-live for "account not found" entries
+     */
+    public LinkStatusCache(int maxEntries, long ttlSeconds, long negativeTtlSeconds) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        // Access-ordered so iteration order is least recently used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > LinkStatusCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up a cached account
+     *
+     * @param xuid Player's XUID
+     * @return The cached lookup, or null on a miss or expired entry
+     */
+    public Lookup get(String xuid) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(xuid);
+            if (entry != null && now - entry.expiresAt < 0) {
+                hits.increment();
+                return entry.lookup;
+            }
+            if (entry != null) {
+                entries.remove(xuid);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Cache an account that was found
+     */
+    public void put(String xuid, LinkedAccount account) {
+        store(xuid, Lookup.of(account), ttlNanos);
+    }
+
+    /**
+     * Cache that the account does not exist or is not linked
+     */
+    public void putNegative(String xuid) {
+        if (negativeTtlNanos > 0) {
+            store(xuid, Lookup.NOT_FOUND, negativeTtlNanos);
+        }
+    }
+
+    private void store(String xuid, Lookup lookup, long ttl) {
+        long expiresAt = System.nanoTime() + ttl;
+        synchronized (entries) {
+            entries.put(xuid, new Entry(lookup, expiresAt));
+        }
+    }
+
+    /**
+     * Drop the cached entry for a player, e.g. after their link state changed
+     */
+    public void invalidate(String xuid) {
+        synchronized (entries) {
+            entries.remove(xuid);
+        }
+    }
+
+    /**
+     * Drop all cached entries
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Result of a cache hit; {@link #getAccount()} is null for negative entries
+     */
+    public static final class Lookup {
+        static final Lookup NOT_FOUND = new Lookup(null);
+
+        private final LinkedAccount account;
+
+        private Lookup(LinkedAccount account) {
+            this.account = account;
+        }
+
+        static Lookup of(LinkedAccount account) {
+            return account == null ? NOT_FOUND : new Lookup(account);
+        }
+
+        public LinkedAccount getAccount() {
+            return account;
+        }
+
+        public boolean isNegative() {
+            return account == null;
+        }
+    }
+
+    private static final class Entry {
+        private final Lookup lookup;
+        private final long expiresAt;
+
+        private Entry(Lookup lookup, long expiresAt) {
+            this.lookup = lookup;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package gg.pigraid.discordlink.api;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-endpoint timeouts and retry budget for AccountService requests
+ *
+ * Only idempotent GETs (account fetch) are retried, using exponential
+ * backoff with full jitter. Every request, including all of its retries,
+ * has to finish within the total deadline.
+ */
+public class RequestPolicy {
+    /**
+     * A retry is skipped if less than this would remain for the attempt itself
+     */
+    static final long MIN_ATTEMPT_MILLIS = 250;
+
+    private final long connectTimeoutMillis;
+    private final Map<AccountServiceEndpoint, Long> timeoutsMillis;
+    private final long totalDeadlineMillis;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    /**
+     * @param connectTimeoutMillis TCP connect timeout
+     * @param timeoutsMillis Per-attempt timeout for each endpoint
+     * @param totalDeadlineMillis Deadline for a request including all retries
+     * @param maxAttempts Attempts for idempotent requests (1 disables retries)
+     * @param baseBackoffMillis Backoff before the first retry
+     * @param maxBackoffMillis Upper bound for a single backoff
+     */
+    public RequestPolicy(long connectTimeoutMillis, Map<AccountServiceEndpoint, Long> timeoutsMillis,
+                         long totalDeadlineMillis, int maxAttempts, long baseBackoffMillis, long maxBackoffMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.timeoutsMillis = new EnumMap<>(timeoutsMillis);
+        this.totalDeadlineMillis = totalDeadlineMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMillis = Math.max(1, baseBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.baseBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Timeouts matching the previously hard-coded client settings, without retries
+     */
+    public static RequestPolicy defaults() {
+        Map<AccountServiceEndpoint, Long> timeouts = new EnumMap<>(AccountServiceEndpoint.class);
+        for (AccountServiceEndpoint endpoint : AccountServiceEndpoint.values()) {
+            timeouts.put(endpoint, 10_000L);
+        }
+        return new RequestPolicy(3_000, timeouts, 10_000, 1, 100, 1_000);
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * @return Per-attempt timeout for the endpoint, never above the total deadline
+     */
+    public long getTimeoutMillis(AccountServiceEndpoint endpoint) {
+        Long timeout = timeoutsMillis.get(endpoint);
+        return timeout == null ? totalDeadlineMillis : Math.min(timeout, totalDeadlineMillis);
+    }
+
+    /**
+     * @return Longest per-attempt timeout of all endpoints
+     */
+    public long getMaxTimeoutMillis() {
+        long max = 0;
+        for (AccountServiceEndpoint endpoint : AccountServiceEndpoint.values()) {
+            max = Math.max(max, getTimeoutMillis(endpoint));
+        }
+        return max;
+    }
+
+    public long getTotalDeadlineMillis() {
+        return totalDeadlineMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Backoff before the next attempt, with full jitter
+     *
+     * @param attempt The attempt that just failed (1-based)
+     */
+    public long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
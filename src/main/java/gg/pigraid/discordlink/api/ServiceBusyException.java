@@ -0,0 +1,10 @@
+package gg.pigraid.discordlink.api;
+
+/**
+ * Thrown when a request is rejected because the DiscordLink HTTP lane is full
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,62 @@
+package gg.pigraid.discordlink.api;
+
+/**
+ * Latency and throughput of AccountService calls, per endpoint and outcome
+ *
+ * One histogram per (endpoint, outcome) pair, allocated up front, so recording
+ * is an array lookup plus the histogram update. The registry outlives the
+ * service client, so numbers survive a config reload.
+ */
+public class ServiceMetrics {
+
+    public enum Outcome {
+        SUCCESS("success"),
+        HTTP_ERROR("http_error"),
+        PARSE_ERROR("parse_error"),
+        CONNECTION_FAILURE("connection_failure");
+
+        private final String id;
+
+        Outcome(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return SUCCESS for 2xx responses, HTTP_ERROR otherwise
+         */
+        public static Outcome forStatus(int statusCode) {
+            return statusCode >= 200 && statusCode < 300 ? SUCCESS : HTTP_ERROR;
+        }
+    }
+
+    private static final int OUTCOMES = Outcome.values().length;
+
+    private final LatencyHistogram[] histograms;
+    private final long startedAt = System.nanoTime();
+
+    public ServiceMetrics() {
+        this.histograms = new LatencyHistogram[AccountServiceEndpoint.values().length * OUTCOMES];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(AccountServiceEndpoint endpoint, Outcome outcome, long durationNanos) {
+        histograms[endpoint.ordinal() * OUTCOMES + outcome.ordinal()].record(durationNanos);
+    }
+
+    public LatencyHistogram get(AccountServiceEndpoint endpoint, Outcome outcome) {
+        return histograms[endpoint.ordinal() * OUTCOMES + outcome.ordinal()];
+    }
+
+    /**
+     * @return Nanosecond timestamp the registry was created at, for rates
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+}
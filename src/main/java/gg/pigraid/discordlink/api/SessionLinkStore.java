@@ -0,0 +1,76 @@
+package gg.pigraid.discordlink.api;
+
+import gg.pigraid.discordlink.api.models.LinkedAccount;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Link state of online players, held for the whole session
+ *
+ * Players are tracked from login until disconnect. While tracked, every
+ * account lookup result for them is kept here without expiry, so
+ * /link status can be answered without a network call.
+ */
+public class SessionLinkStore {
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Start holding link state for a player
+     */
+    public void track(String xuid) {
+        slots.putIfAbsent(xuid, new Slot());
+    }
+
+    /**
+     * Stop holding link state for a player (on disconnect)
+     */
+    public void untrack(String xuid) {
+        slots.remove(xuid);
+    }
+
+    public boolean isTracked(String xuid) {
+        return slots.containsKey(xuid);
+    }
+
+    /**
+     * @return The held lookup, or null if the player is not tracked or not loaded yet
+     */
+    public LinkStatusCache.Lookup get(String xuid) {
+        Slot slot = slots.get(xuid);
+        return slot == null ? null : slot.lookup;
+    }
+
+    /**
+     * Store a lookup result if the player is tracked
+     *
+     * @param account The account, or null if it was not found
+     */
+    void update(String xuid, LinkedAccount account) {
+        Slot slot = slots.get(xuid);
+        if (slot != null) {
+            slot.lookup = LinkStatusCache.Lookup.of(account);
+        }
+    }
+
+    /**
+     * Forget the held state so the next lookup fetches it again
+     */
+    void invalidate(String xuid) {
+        Slot slot = slots.get(xuid);
+        if (slot != null) {
+            slot.lookup = null;
+        }
+    }
+
+    void invalidateAll() {
+        slots.values().forEach(slot -> slot.lookup = null);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private static final class Slot {
+        private volatile LinkStatusCache.Lookup lookup;
+    }
+}
@@ -0,0 +1,22 @@
+package gg.pigraid.discordlink.api.models;
+
+import java.util.List;
+
+/**
+ * Request model for looking up several accounts in one call
+ */
+public class BulkAccountRequest {
+    private List<String> xuids;
+
+    public BulkAccountRequest(List<String> xuids) {
+        this.xuids = xuids;
+    }
+
+    public List<String> getXuids() {
+        return xuids;
+    }
+
+    public void setXuids(List<String> xuids) {
+        this.xuids = xuids;
+    }
+}
@@ -0,0 +1,19 @@
+package gg.pigraid.discordlink.api.models;
+
+import java.util.Map;
+
+/**
+ * Response model for bulk account lookups
+ * XUIDs without an account are absent from the map
+ */
+public class BulkAccountResponse {
+    private Map<String, LinkedAccount> accounts;
+
+    public Map<String, LinkedAccount> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(Map<String, LinkedAccount> accounts) {
+        this.accounts = accounts;
+    }
+}
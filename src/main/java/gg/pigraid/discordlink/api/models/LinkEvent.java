@@ -0,0 +1,46 @@
+package gg.pigraid.discordlink.api.models;
+
+/**
+ * Link state change pushed by AccountService to the webhook receiver
+ */
+public class LinkEvent {
+    public static final String TYPE_LINKED = "linked";
+    public static final String TYPE_UNLINKED = "unlinked";
+
+    private String type;
+    private String xuid;
+    private String discordId;
+    private String discordUsername;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getXuid() {
+        return xuid;
+    }
+
+    public void setXuid(String xuid) {
+        this.xuid = xuid;
+    }
+
+    public String getDiscordId() {
+        return discordId;
+    }
+
+    public void setDiscordId(String discordId) {
+        this.discordId = discordId;
+    }
+
+    public String getDiscordUsername() {
+        return discordUsername;
+    }
+
+    public void setDiscordUsername(String discordUsername) {
+        this.discordUsername = discordUsername;
+    }
+}
@@ -0,0 +1,38 @@
+package gg.pigraid.discordlink.api.models;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * Link-only projection of an AccountService account
+ *
+ * Only the XUID and settings.discordLink are decoded; every other field of
+ * the account is skipped while streaming, see {@link LinkedAccountAdapter}.
+ */
+@JsonAdapter(LinkedAccountAdapter.class)
+public class LinkedAccount {
+    private String xuid;
+    private DiscordLinkDto discordLink;
+
+    public String getXuid() {
+        return xuid;
+    }
+
+    public void setXuid(String xuid) {
+        this.xuid = xuid;
+    }
+
+    /**
+     * @return The Discord link, or null if the account carries none
+     */
+    public DiscordLinkDto getDiscordLink() {
+        return discordLink;
+    }
+
+    public void setDiscordLink(DiscordLinkDto discordLink) {
+        this.discordLink = discordLink;
+    }
+
+    public boolean isLinked() {
+        return discordLink != null && discordLink.getDiscordId() != null;
+    }
+}
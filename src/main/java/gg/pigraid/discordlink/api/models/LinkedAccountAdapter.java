@@ -0,0 +1,115 @@
+package gg.pigraid.discordlink.api.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming decoder for {@link LinkedAccount}
+ *
+ * Walks the account object once and skips every subtree except xuid and
+ * settings.discordLink, so stats, roles and other settings are never
+ * materialized.
+ */
+public class LinkedAccountAdapter extends TypeAdapter<LinkedAccount> {
+
+    @Override
+    public LinkedAccount read(JsonReader in) throws IOException {
+        LinkedAccount account = new LinkedAccount();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "xuid":
+                    account.setXuid(nextString(in));
+                    break;
+                case "settings":
+                    readSettings(in, account);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return account;
+    }
+
+    private void readSettings(JsonReader in, LinkedAccount account) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("discordLink".equals(in.nextName())) {
+                account.setDiscordLink(readDiscordLink(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private DiscordLinkDto readDiscordLink(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        DiscordLinkDto link = new DiscordLinkDto();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "discordId":
+                    link.setDiscordId(nextString(in));
+                    break;
+                case "discordUsername":
+                    link.setDiscordUsername(nextString(in));
+                    break;
+                case "discordDisplayName":
+                    link.setDiscordDisplayName(nextString(in));
+                    break;
+                case "linkedAt":
+                    link.setLinkedAt(nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return link;
+    }
+
+    /**
+     * @return The string (numbers are read as text), or null for JSON null or a nested value
+     */
+    private static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return in.nextString();
+        }
+        in.skipValue();
+        return null;
+    }
+
+    @Override
+    public void write(JsonWriter out, LinkedAccount account) throws IOException {
+        out.beginObject();
+        out.name("xuid").value(account.getXuid());
+        DiscordLinkDto link = account.getDiscordLink();
+        if (link != null) {
+            out.name("settings").beginObject();
+            out.name("discordLink").beginObject();
+            out.name("discordId").value(link.getDiscordId());
+            out.name("discordUsername").value(link.getDiscordUsername());
+            out.name("discordDisplayName").value(link.getDiscordDisplayName());
+            out.name("linkedAt").value(link.getLinkedAt());
+            out.endObject();
+            out.endObject();
+        }
+        out.endObject();
+    }
+}
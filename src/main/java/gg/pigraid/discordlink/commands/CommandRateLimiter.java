@@ -0,0 +1,115 @@
+package gg.pigraid.discordlink.commands;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits /link subcommands per player and proxy-wide
+ *
+ * Every player gets one bucket per subcommand; all players share one global
+ * bucket. Player buckets are created on first use and dropped on disconnect,
+ * so memory is bounded by the number of online players. Players are keyed by
+ * XUID, or by UUID when they have none (offline mode), so XUID-less players
+ * do not share a bucket.
+ */
+public class CommandRateLimiter {
+
+    public enum Action {
+        LINK,
+        STATUS,
+        UNLINK
+    }
+
+    /**
+     * Bucket settings for one action
+     */
+    public static final class Limit {
+        private final long emissionIntervalNanos;
+        private final int burst;
+
+        /**
+         * @param perMinute Sustained requests per minute
+         * @param burst Requests allowed back to back
+         */
+        public Limit(int perMinute, int burst) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burst = burst;
+        }
+
+        private TokenBucket newBucket() {
+            return new TokenBucket(emissionIntervalNanos, burst);
+        }
+    }
+
+    private final Map<Action, Limit> limits;
+    private final TokenBucket globalBucket;
+    private final ConcurrentHashMap<String, TokenBucket[]> playerBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param limits Per-player limit for each action
+     * @param globalPerSecond Proxy-wide sustained requests per second
+     * @param globalBurst Proxy-wide requests allowed back to back
+     */
+    public CommandRateLimiter(Map<Action, Limit> limits, int globalPerSecond, int globalBurst) {
+        this.limits = new EnumMap<>(limits);
+        this.globalBucket = new TokenBucket(TimeUnit.SECONDS.toNanos(1) / Math.max(1, globalPerSecond), globalBurst);
+    }
+
+    /**
+     * Check whether a player may run an action now
+     *
+     * @return false if the player or the proxy is over its limit
+     */
+    public boolean tryAcquire(ProxiedPlayer player, Action action) {
+        return tryAcquire(keyOf(player), action);
+    }
+
+    /**
+     * @param key Player's XUID (or UUID if they have none)
+     * @return false if the player or the proxy is over its limit
+     */
+    public boolean tryAcquire(String key, Action action) {
+        TokenBucket bucket = playerBuckets.computeIfAbsent(key, k -> newPlayerBuckets())[action.ordinal()];
+        if (bucket != null && !bucket.tryAcquire()) {
+            return false;
+        }
+        if (globalBucket.tryAcquire()) {
+            return true;
+        }
+        // Rejected proxy-wide, so the player's token was not used
+        if (bucket != null) {
+            bucket.refund();
+        }
+        return false;
+    }
+
+    private TokenBucket[] newPlayerBuckets() {
+        TokenBucket[] buckets = new TokenBucket[Action.values().length];
+        limits.forEach((action, limit) -> buckets[action.ordinal()] = limit.newBucket());
+        return buckets;
+    }
+
+    /**
+     * Drop a player's buckets (on disconnect)
+     */
+    public void evict(ProxiedPlayer player) {
+        evict(keyOf(player));
+    }
+
+    public void evict(String key) {
+        playerBuckets.remove(key);
+    }
+
+    private static String keyOf(ProxiedPlayer player) {
+        String xuid = player.getLoginData().getXuid();
+        return xuid == null || xuid.isEmpty() ? player.getUniqueId().toString() : xuid;
+    }
+
+    public int getTrackedPlayers() {
+        return playerBuckets.size();
+    }
+}
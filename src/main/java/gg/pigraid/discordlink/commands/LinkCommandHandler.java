@@ -0,0 +1,110 @@
+package gg.pigraid.discordlink.commands;
+
+import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import gg.pigraid.discordlink.api.models.DiscordLinkDto;
+import gg.pigraid.discordlink.api.models.GenerateCodeResponse;
+import gg.pigraid.discordlink.api.models.LinkedAccount;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * AccountService side of the /link subcommands, without players, messages or scheduling
+ *
+ * LinkCommands turns the results into chat messages, forms and sounds. The
+ * offline load test drives this class directly, so it sends exactly the
+ * requests the plugin sends, through the same caches and link state store.
+ */
+public class LinkCommandHandler {
+    private final Supplier<DiscordLinkServiceClient> client;
+    private final Supplier<LinkStateStore> stateStore;
+    private final LongSupplier refreshAfterSeconds;
+
+    /**
+     * Suppliers, because a config reload replaces the client and the store
+     *
+     * @param stateStore Persisted link state, supplying null when disabled
+     * @param refreshAfterSeconds Age after which a persisted state is revalidated in the background
+     */
+    public LinkCommandHandler(Supplier<DiscordLinkServiceClient> client, Supplier<LinkStateStore> stateStore,
+                              LongSupplier refreshAfterSeconds) {
+        this.client = client;
+        this.stateStore = stateStore;
+        this.refreshAfterSeconds = refreshAfterSeconds;
+    }
+
+    /**
+     * /link: get a verification code (or the player's active one)
+     */
+    public CompletableFuture<GenerateCodeResponse> requestCode(String xuid, String username) {
+        return client.get().generateVerificationCode(xuid, username);
+    }
+
+    /**
+     * /link unlink: look up the account to unlink
+     *
+     * @return CompletableFuture with the account, or null if there is none
+     */
+    public CompletableFuture<LinkedAccount> lookupForUnlink(String xuid) {
+        return client.get().getAccountByXuid(xuid);
+    }
+
+    /**
+     * /link status from the persisted link state, revalidating it in the background once it is old
+     *
+     * @return The status, or null if it has to be looked up with {@link #lookupStatus(String)}
+     */
+    public Status knownStatus(String xuid) {
+        LinkStateStore store = stateStore.get();
+        LinkStateStore.Entry known = store != null ? store.get(xuid) : null;
+        if (known == null) {
+            return null;
+        }
+        if (known.getAgeSeconds() >= refreshAfterSeconds.getAsLong()) {
+            // Bypasses the lookup cache; the result is recorded in the store by the client
+            client.get().revalidateAccount(xuid);
+        }
+        return new Status(known.getState(), null);
+    }
+
+    /**
+     * /link status from AccountService
+     */
+    public CompletableFuture<Status> lookupStatus(String xuid) {
+        return client.get().getAccountByXuid(xuid).thenApply(account -> {
+            if (account == null) {
+                return new Status(LinkStateStore.State.NO_ACCOUNT, null);
+            }
+            if (account.isLinked()) {
+                return new Status(LinkStateStore.State.LINKED, account.getDiscordLink());
+            }
+            return new Status(LinkStateStore.State.NOT_LINKED, null);
+        });
+    }
+
+    /**
+     * Link status of a player
+     */
+    public static final class Status {
+        private final LinkStateStore.State state;
+        private final DiscordLinkDto discordLink;
+
+        Status(LinkStateStore.State state, DiscordLinkDto discordLink) {
+            this.state = state;
+            this.discordLink = discordLink;
+        }
+
+        public LinkStateStore.State getState() {
+            return state;
+        }
+
+        /**
+         * @return The Discord account, if the status came from an account lookup that carried it
+         */
+        public DiscordLinkDto getDiscordLink() {
+            return discordLink;
+        }
+    }
+}
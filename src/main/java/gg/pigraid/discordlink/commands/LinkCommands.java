@@ -1,18 +1,25 @@
 package gg.pigraid.discordlink.commands;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import gg.pigraid.accountadapter.models.AccountDto;
 import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.api.AccountServiceEndpoint;
+import gg.pigraid.discordlink.api.LatencyHistogram;
+import gg.pigraid.discordlink.api.ServiceBusyException;
+import gg.pigraid.discordlink.api.ServiceMetrics;
+import gg.pigraid.discordlink.api.models.DiscordLinkDto;
 import gg.pigraid.discordlink.api.models.GenerateCodeResponse;
 import gg.pigraid.discordlink.api.models.UnlinkResponse;
 import gg.pigraid.discordlink.forms.LinkForms;
+import gg.pigraid.discordlink.players.CodeCountdown;
 import gg.pigraid.feedbackutils.wdpe.SoundUtil;
 import dev.waterdog.waterdogpe.command.Command;
 import dev.waterdog.waterdogpe.command.CommandSender;
 import dev.waterdog.waterdogpe.command.CommandSettings;
 import dev.waterdog.waterdogpe.player.ProxiedPlayer;
 
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Commands for Discord-Minecraft account linking
  * Handles /link, /unlink, and /linkstatus commands
@@ -20,6 +27,7 @@ import dev.waterdog.waterdogpe.player.ProxiedPlayer;
 public class LinkCommands extends Command {
 
     private final DiscordLinkPlugin plugin;
+    private final LinkCommandHandler handler;
 
     public LinkCommands(DiscordLinkPlugin plugin) {
         super("link", CommandSettings.builder()
@@ -28,39 +36,69 @@ public class LinkCommands extends Command {
                 .setAliases(new String[]{"discord", "discordlink"})
                 .build());
         this.plugin = plugin;
+        this.handler = new LinkCommandHandler(plugin::getServiceClient, plugin::getLinkStateStore,
+            () -> plugin.getSettings().linkState().refreshAfterSeconds());
     }
 
     @Override
     public boolean onExecute(CommandSender commandSender, String s, String[] args) {
+        // Admin subcommands - also usable from the console
+        if (args.length > 0 && args[0].equalsIgnoreCase("reload")) {
+            handleReloadCommand(commandSender);
+            return true;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("metrics")) {
+            handleMetricsCommand(commandSender);
+            return true;
+        }
+
         // Check if sender is a player
         if (!(commandSender instanceof ProxiedPlayer)) {
-            commandSender.sendMessage(plugin.getI18n().tr("en_US", "command.onlyPlayers"));
+            commandSender.sendMessage(plugin.getMessages().tr("en_US", "command.onlyPlayers"));
             return false;
         }
 
         ProxiedPlayer player = (ProxiedPlayer) commandSender;
 
         // Get player's language
-        String language = getPlayerLanguage(player);
+        String language = plugin.getPlayerLanguages().get(player);
 
-        // Handle subcommands
+        // Resolve subcommand (unknown subcommands are treated as main /link command)
+        CommandRateLimiter.Action action = CommandRateLimiter.Action.LINK;
         if (args.length > 0) {
             String subcommand = args[0].toLowerCase();
             switch (subcommand) {
                 case "unlink":
-                    handleUnlinkCommand(player, language);
-                    return true;
+                    action = CommandRateLimiter.Action.UNLINK;
+                    break;
                 case "status":
-                    handleStatusCommand(player, language);
-                    return true;
+                    action = CommandRateLimiter.Action.STATUS;
+                    break;
                 default:
-                    // Unknown subcommand, treat as main /link command
                     break;
             }
         }
 
-        // Main /link command - generate verification code
-        handleLinkCommand(player, language);
+        // Throttle before any request to AccountService is made
+        CommandRateLimiter rateLimiter = plugin.getCommandRateLimiter();
+        if (rateLimiter != null && !rateLimiter.tryAcquire(player, action)) {
+            SoundUtil.playError(player);
+            player.sendMessage(plugin.getMessages().tr(language, "command.rate_limited"));
+            return true;
+        }
+
+        switch (action) {
+            case UNLINK:
+                handleUnlinkCommand(player, language);
+                break;
+            case STATUS:
+                handleStatusCommand(player, language);
+                break;
+            default:
+                // Main /link command - generate verification code
+                handleLinkCommand(player, language);
+                break;
+        }
         return true;
     }
 
@@ -72,21 +110,18 @@ public class LinkCommands extends Command {
         String username = player.getName();
 
         // Show "generating..." message
-        player.sendMessage(plugin.getI18n().tr(language, "link.command.generating"));
-
-        // Call API to generate code
-        plugin.getServiceClient().generateVerificationCode(xuid, username)
-            .thenAccept(response -> {
-                // Schedule response handling on proxy thread
-                plugin.getProxy().getScheduler().scheduleAsync(() -> {
-                    handleGenerateCodeResponse(player, language, response);
-                });
-            })
-            .exceptionally(ex -> {
-                plugin.getLogger().error("Error generating verification code: " + ex.getMessage());
-                SoundUtil.playError(player);
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.error"));
-                return null;
+        player.sendMessage(plugin.getMessages().tr(language, "link.command.generating"));
+
+        // Call API to generate code, the response is handled on the response executor
+        plugin.getResponseExecutor().deliver(player, handler.requestCode(xuid, username),
+            (response, ex) -> {
+                if (ex != null) {
+                    plugin.getLogger().error("Error generating verification code: " + ex.getMessage());
+                    SoundUtil.playError(player);
+                    player.sendMessage(plugin.getMessages().tr(language, "link.command.error"));
+                    return;
+                }
+                handleGenerateCodeResponse(player, language, response);
             });
     }
 
@@ -100,25 +135,31 @@ public class LinkCommands extends Command {
             if ("ALREADY_LINKED".equals(error)) {
                 // Player is already linked
                 SoundUtil.playError(player);
+                stopCountdown(player);
                 String message = response.getMessage();
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.already_linked", message));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.already_linked", message));
+            } else if ("BUSY".equals(error)) {
+                // Request queue is full - no request was sent
+                SoundUtil.playError(player);
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.busy"));
             } else if ("CODE_EXISTS".equals(error)) {
                 // Player has a pending code - show it again
                 String code = response.getCode();
                 int expiresInSeconds = response.getExpiresInSeconds();
 
-                if (plugin.getConfiguration().getBoolean("settings.use_form_ui", true)) {
+                if (plugin.getSettings().settings().useFormUi()) {
                     // Show form UI with existing code
                     LinkForms.showLinkCodeForm(player, language, code, expiresInSeconds, plugin);
                 } else {
                     // Send chat message
-                    player.sendMessage(plugin.getI18n().tr(language, "link.command.code_exists", code, String.valueOf(expiresInSeconds)));
+                    player.sendMessage(plugin.getMessages().tr(language, "link.command.code_exists", code, String.valueOf(expiresInSeconds)));
                 }
+                startCountdown(player, language, code, expiresInSeconds);
             } else {
                 // Generic error
                 SoundUtil.playError(player);
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.error"));
-                if (plugin.getConfiguration().getBoolean("debug", false)) {
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.error"));
+                if (plugin.getSettings().settings().debug()) {
                     player.sendMessage("§cDebug: " + response.getMessage());
                 }
             }
@@ -127,19 +168,100 @@ public class LinkCommands extends Command {
             String code = response.getCode();
             int expiresInSeconds = response.getExpiresInSeconds();
 
-            if (plugin.getConfiguration().getBoolean("settings.use_form_ui", true)) {
+            if (plugin.getSettings().settings().useFormUi()) {
                 // Show form UI
                 LinkForms.showLinkCodeForm(player, language, code, expiresInSeconds, plugin);
             } else {
                 // Send chat messages
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.success.title"));
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.success.code", code));
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.success.instructions", code));
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.success.expires", String.valueOf(expiresInSeconds)));
-                String discordUrl = plugin.getConfiguration().getString("discord.invite_url", "https://discord.gg/pigraid");
-                player.sendMessage(plugin.getI18n().tr(language, "link.command.success.discord", discordUrl));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.success.title"));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.success.code", code));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.success.instructions", code));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.success.expires", String.valueOf(expiresInSeconds)));
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.success.discord", plugin.getSettings().discord().inviteUrl()));
+            }
+            startCountdown(player, language, code, expiresInSeconds);
+        }
+    }
+
+    private void startCountdown(ProxiedPlayer player, String language, String code, int expiresInSeconds) {
+        CodeCountdown countdown = plugin.getCodeCountdown();
+        if (countdown != null) {
+            countdown.start(player, language, code, expiresInSeconds);
+        }
+    }
+
+    private void stopCountdown(ProxiedPlayer player) {
+        CodeCountdown countdown = plugin.getCodeCountdown();
+        if (countdown != null) {
+            countdown.stop(player);
+        }
+    }
+
+    /**
+     * Handle /link reload command - re-read config.yml
+     */
+    private void handleReloadCommand(CommandSender sender) {
+        String language = sender instanceof ProxiedPlayer ? plugin.getPlayerLanguages().get((ProxiedPlayer) sender) : "en_US";
+        if (!sender.hasPermission("discordlink.reload")) {
+            sender.sendMessage(plugin.getMessages().tr(language, "command.no_permission"));
+            return;
+        }
+
+        plugin.getProxy().getScheduler().scheduleAsync(() -> {
+            try {
+                List<String> rebuilt = plugin.reloadConfiguration();
+                sender.sendMessage(plugin.getMessages().tr(language, "reload.command.success"));
+                if (!rebuilt.isEmpty()) {
+                    sender.sendMessage(plugin.getMessages().tr(language, "reload.command.rebuilt", String.join(", ", rebuilt)));
+                }
+            } catch (RuntimeException e) {
+                plugin.getLogger().error("Failed to reload config.yml: " + e.getMessage());
+                sender.sendMessage(plugin.getMessages().tr(language, "reload.command.error", String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    /**
+     * Handle /link metrics command - show AccountService latencies
+     */
+    private void handleMetricsCommand(CommandSender sender) {
+        String language = sender instanceof ProxiedPlayer ? plugin.getPlayerLanguages().get((ProxiedPlayer) sender) : "en_US";
+        if (!sender.hasPermission("discordlink.metrics")) {
+            sender.sendMessage(plugin.getMessages().tr(language, "command.no_permission"));
+            return;
+        }
+
+        ServiceMetrics metrics = plugin.getServiceMetrics();
+        long uptimeSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - metrics.getStartedAt()));
+        sender.sendMessage(plugin.getMessages().tr(language, "metrics.command.header", uptimeSeconds / 60 + "m"));
+
+        boolean any = false;
+        for (AccountServiceEndpoint endpoint : AccountServiceEndpoint.values()) {
+            for (ServiceMetrics.Outcome outcome : ServiceMetrics.Outcome.values()) {
+                LatencyHistogram.Snapshot snapshot = metrics.get(endpoint, outcome).snapshot();
+                if (snapshot.getCount() == 0) {
+                    continue;
+                }
+                any = true;
+                sender.sendMessage(String.format("§e%s §7%s: §f%d §7(%.2f/s) p50 §f%s §7p95 §f%s §7p99 §f%s §7max §f%s",
+                    endpoint.getId(), outcome.getId(), snapshot.getCount(), (double) snapshot.getCount() / uptimeSeconds,
+                    formatMicros(snapshot.getP50()), formatMicros(snapshot.getP95()),
+                    formatMicros(snapshot.getP99()), formatMicros(snapshot.getMax())));
             }
         }
+        if (!any) {
+            sender.sendMessage(plugin.getMessages().tr(language, "metrics.command.empty"));
+        }
+
+        ResponseExecutor responses = plugin.getResponseExecutor();
+        LatencyHistogram.Snapshot wait = responses.getQueueWait().snapshot();
+        sender.sendMessage(String.format("§eresponses §7(%s): §f%d §7sent, §f%d §7dropped, §f%d §7rejected, queue §f%d§7/§f%d §7(peak §f%d§7) wait p99 §f%s",
+            responses.getMode().name().toLowerCase(), responses.getExecuted(), responses.getDropped(), responses.getRejected(),
+            responses.getQueueDepth(), responses.getMaxQueued(), responses.getPeakQueueDepth(), formatMicros(wait.getP99())));
+    }
+
+    private static String formatMicros(long micros) {
+        return micros < 10_000 ? String.format("%.1fms", micros / 1000.0) : micros / 1000 + "ms";
     }
 
     /**
@@ -149,43 +271,31 @@ public class LinkCommands extends Command {
         String xuid = player.getLoginData().getXuid();
 
         // First, get the player's account to retrieve Discord ID
-        plugin.getServiceClient().getAccountByXuid(xuid)
-            .thenAccept(account -> {
-                if (account == null) {
-                    SoundUtil.playError(player);
-                    player.sendMessage(plugin.getI18n().tr(language, "link.command.no_account"));
+        plugin.getResponseExecutor().deliver(player, handler.lookupForUnlink(xuid), (account, ex) -> {
+            if (ex != null) {
+                SoundUtil.playError(player);
+                if (isBusy(ex)) {
+                    player.sendMessage(plugin.getMessages().tr(language, "link.command.busy"));
                     return;
                 }
-
-                // Check if account has Discord link (we need to parse the settings)
-                // For now, we'll show "not linked" if we can't get Discord info
-                // This is a limitation - ideally AccountDto should expose DiscordLink
-                player.sendMessage(plugin.getI18n().tr(language, "unlink.command.not_linked"));
-                player.sendMessage("§eNote: Unlinking from Discord is currently only supported via Discord bot.");
-                player.sendMessage("§eUse /unlink command in Discord to unlink your account.");
-
-                // TODO: Once AccountDto exposes DiscordLink, implement proper unlinking
-                // String discordId = account.getSettings().getDiscordLink().getDiscordId();
-                // if (discordId == null) {
-                //     player.sendMessage(plugin.getI18n().tr(language, "unlink.command.not_linked"));
-                //     return;
-                // }
-                //
-                // plugin.getServiceClient().unlinkDiscordAccount(discordId)
-                //     .thenAccept(response -> {
-                //         if (response.isSuccess()) {
-                //             player.sendMessage(plugin.getI18n().tr(language, "unlink.command.success"));
-                //         } else {
-                //             player.sendMessage(plugin.getI18n().tr(language, "unlink.command.error"));
-                //         }
-                //     });
-            })
-            .exceptionally(ex -> {
                 plugin.getLogger().error("Error fetching account for unlink: " + ex.getMessage());
+                player.sendMessage(plugin.getMessages().tr(language, "unlink.command.error"));
+                return;
+            }
+            if (account == null) {
                 SoundUtil.playError(player);
-                player.sendMessage(plugin.getI18n().tr(language, "unlink.command.error"));
-                return null;
-            });
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.no_account"));
+                return;
+            }
+
+            if (!account.isLinked()) {
+                player.sendMessage(plugin.getMessages().tr(language, "unlink.command.not_linked"));
+                return;
+            }
+
+            player.sendMessage("§eNote: Unlinking from Discord is currently only supported via Discord bot.");
+            player.sendMessage("§eUse /unlink command in Discord to unlink your account.");
+        });
     }
 
     /**
@@ -194,52 +304,57 @@ public class LinkCommands extends Command {
     private void handleStatusCommand(ProxiedPlayer player, String language) {
         String xuid = player.getLoginData().getXuid();
 
+        // Answer from the persisted link state right away if there is one
+        LinkCommandHandler.Status known = handler.knownStatus(xuid);
+        if (known != null) {
+            plugin.getResponseExecutor().execute(player, () -> sendLinkStatus(player, language, known));
+            return;
+        }
+
         // Fetch account to check Discord link
-        plugin.getServiceClient().getAccountByXuid(xuid)
-            .thenAccept(account -> {
-                plugin.getProxy().getScheduler().scheduleAsync(() -> {
-                    if (account == null) {
-                        player.sendMessage(plugin.getI18n().tr(language, "link.command.no_account"));
-                        return;
-                    }
-
-                    // Check if Discord link exists
-                    // For now, show "not linked" message
-                    // This is a limitation until AccountDto exposes DiscordLink
-                    player.sendMessage(plugin.getI18n().tr(language, "status.command.not_linked"));
-
-                    // TODO: Once AccountDto exposes DiscordLink, show proper status
-                    // DiscordLinkDto discordLink = account.getSettings().getDiscordLink();
-                    // if (discordLink != null && discordLink.getDiscordId() != null) {
-                    //     String discordUsername = discordLink.getDiscordUsername();
-                    //     String linkedAt = discordLink.getLinkedAt();
-                    //     player.sendMessage(plugin.getI18n().tr(language, "status.command.linked", discordUsername));
-                    //     player.sendMessage(plugin.getI18n().tr(language, "status.command.linked_since", linkedAt));
-                    // } else {
-                    //     player.sendMessage(plugin.getI18n().tr(language, "status.command.not_linked"));
-                    // }
-                });
-            })
-            .exceptionally(ex -> {
-                plugin.getLogger().error("Error fetching account for status: " + ex.getMessage());
+        plugin.getResponseExecutor().deliver(player, handler.lookupStatus(xuid), (status, ex) -> {
+            if (ex != null) {
                 SoundUtil.playError(player);
-                player.sendMessage(plugin.getI18n().tr(language, "status.command.error"));
-                return null;
-            });
+                if (isBusy(ex)) {
+                    player.sendMessage(plugin.getMessages().tr(language, "link.command.busy"));
+                    return;
+                }
+                plugin.getLogger().error("Error fetching account for status: " + ex.getMessage());
+                player.sendMessage(plugin.getMessages().tr(language, "status.command.error"));
+                return;
+            }
+            sendLinkStatus(player, language, status);
+        });
     }
 
-    /**
-     * Get player's language from login data
-     */
-    private String getPlayerLanguage(ProxiedPlayer player) {
-        try {
-            JsonObject extraData = player.getLoginData().getClientData();
-            if (extraData.has("LanguageCode")) {
-                return extraData.get("LanguageCode").getAsString();
+    private void sendLinkStatus(ProxiedPlayer player, String language, LinkCommandHandler.Status status) {
+        DiscordLinkDto discordLink = status.getDiscordLink();
+        if (discordLink != null) {
+            player.sendMessage(plugin.getMessages().tr(language, "status.command.linked", discordLink.getDiscordUsername()));
+            if (discordLink.getLinkedAt() != null) {
+                player.sendMessage(plugin.getMessages().tr(language, "status.command.linked_since", discordLink.getLinkedAt()));
             }
-        } catch (JsonParseException e) {
-            // Fallback to en_US if error
+            return;
+        }
+
+        switch (status.getState()) {
+            case NO_ACCOUNT:
+                player.sendMessage(plugin.getMessages().tr(language, "link.command.no_account"));
+                break;
+            case LINKED:
+                player.sendMessage(plugin.getMessages().tr(language, "status.command.linked_account"));
+                break;
+            default:
+                player.sendMessage(plugin.getMessages().tr(language, "status.command.not_linked"));
+                break;
         }
-        return "en_US";
+    }
+
+    /**
+     * Check if a request failed because the DiscordLink request queue was full
+     */
+    private boolean isBusy(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof ServiceBusyException;
     }
 }
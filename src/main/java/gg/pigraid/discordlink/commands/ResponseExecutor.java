@@ -0,0 +1,209 @@
+package gg.pigraid.discordlink.commands;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.api.LatencyHistogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs command responses once AccountService has answered
+ *
+ * Every client future hands its result over exactly once, from whichever
+ * thread completed it (OkHttp dispatcher or the caller on a cache hit) to this
+ * executor, where messages, forms and sounds are sent. Work for players who
+ * disconnected in the meantime is dropped. If more than {@code maxQueued}
+ * responses are waiting, new ones are rejected and the proxy scheduler tells
+ * the player the service is busy, so the completing thread never runs response work.
+ */
+public class ResponseExecutor {
+    private static final String THREAD_NAME = "DiscordLink-Response";
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL;
+
+        static Mode fromConfig(String value) {
+            return "virtual".equalsIgnoreCase(value) ? VIRTUAL : PLATFORM;
+        }
+    }
+
+    private final DiscordLinkPlugin plugin;
+    private final Mode mode;
+    private final int maxQueued;
+    private final ExecutorService executor;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    /**
+     * @param mode "platform" or "virtual" (falls back to platform before Java 21)
+     * @param threads Pool size for the platform executor
+     * @param maxQueued Responses allowed to wait before new ones are rejected
+     */
+    public ResponseExecutor(DiscordLinkPlugin plugin, String mode, int threads, int maxQueued) {
+        this.plugin = plugin;
+        this.maxQueued = Math.max(1, maxQueued);
+
+        Mode requested = Mode.fromConfig(mode);
+        ExecutorService virtual = requested == Mode.VIRTUAL ? VirtualThreads.newExecutor(THREAD_NAME) : null;
+        if (requested == Mode.VIRTUAL && virtual == null) {
+            plugin.getLogger().warn("Virtual threads need Java 21+, using a platform thread pool for responses");
+        }
+
+        if (virtual != null) {
+            this.mode = Mode.VIRTUAL;
+            this.executor = virtual;
+        } else {
+            this.mode = Mode.PLATFORM;
+            int poolSize = Math.max(1, threads);
+            AtomicInteger threadCount = new AtomicInteger();
+            // Queue is unbounded here, the maxQueued check in execute() bounds it
+            this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME + "-" + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+    }
+
+    /**
+     * Handle a client future's outcome for a player on this executor
+     *
+     * @param handler Called with the result or the failure, like {@link CompletableFuture#whenComplete}
+     */
+    public <T> void deliver(ProxiedPlayer player, CompletableFuture<T> future, BiConsumer<? super T, ? super Throwable> handler) {
+        future.whenComplete((result, error) -> execute(player, () -> handler.accept(result, error)));
+    }
+
+    /**
+     * Run a response task for a player on this executor
+     */
+    public void execute(ProxiedPlayer player, Runnable task) {
+        if (!player.isConnected()) {
+            dropped.increment();
+            return;
+        }
+
+        int depth = queued.incrementAndGet();
+        if (depth > maxQueued) {
+            queued.decrementAndGet();
+            reject(player);
+            return;
+        }
+        peakQueued.accumulateAndGet(depth, Math::max);
+
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                queueWait.record(System.nanoTime() - submittedAt);
+                run(player, task);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down by a reload; the replacement executor is already published
+            queued.decrementAndGet();
+            ResponseExecutor replacement = plugin.getResponseExecutor();
+            if (replacement != null && replacement != this) {
+                replacement.execute(player, task);
+            } else {
+                reject(player);
+            }
+        }
+    }
+
+    /**
+     * Drop a response that could not be queued and tell the player to try again
+     * The message goes out from the proxy scheduler; only the count is updated on the calling thread.
+     */
+    private void reject(ProxiedPlayer player) {
+        rejected.increment();
+        plugin.getProxy().getScheduler().scheduleAsync(() -> {
+            if (!player.isConnected()) {
+                return;
+            }
+            try {
+                player.sendMessage(plugin.getMessages().tr(plugin.getPlayerLanguages().get(player), "link.command.busy"));
+            } catch (RuntimeException e) {
+                plugin.getLogger().error("Failed to send busy message to " + player.getName() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void run(ProxiedPlayer player, Runnable task) {
+        if (!player.isConnected()) {
+            dropped.increment();
+            return;
+        }
+        try {
+            task.run();
+            executed.increment();
+        } catch (RuntimeException e) {
+            plugin.getLogger().error("Failed to send response to " + player.getName() + ": " + e.getMessage());
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return Responses currently waiting for a thread
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueued.get();
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /**
+     * @return Responses skipped because the player had disconnected
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Responses replaced by a busy message because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return Time responses spent waiting for a thread
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Stop accepting responses; already queued ones still run
+     */
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,51 @@
+package gg.pigraid.discordlink.commands;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket
+ *
+ * Uses the GCRA formulation: instead of a token count the bucket stores the
+ * theoretical arrival time of the next request, so a check is a single CAS
+ * on one long and needs no background refill.
+ */
+public final class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param emissionIntervalNanos Time to regain one token
+     * @param burst Maximum tokens available at once
+     */
+    public TokenBucket(long emissionIntervalNanos, int burst) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Take a token if one is available
+     *
+     * @return false if the bucket is empty
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long tat = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            if (tat - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, tat + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire()} for a request that did not run
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+}
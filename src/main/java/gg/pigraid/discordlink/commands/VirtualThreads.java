@@ -0,0 +1,22 @@
+package gg.pigraid.discordlink.commands;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual thread support, replaced by src/main/java21 in the multi-release JAR
+ *
+ * This is the Java 17 version: virtual threads are not available.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @param name Thread name prefix
+     * @return An executor starting one virtual thread per task, or null if unsupported
+     */
+    static ExecutorService newExecutor(String name) {
+        return null;
+    }
+}
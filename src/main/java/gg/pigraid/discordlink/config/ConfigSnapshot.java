@@ -0,0 +1,182 @@
+package gg.pigraid.discordlink.config;
+
+import dev.waterdog.waterdogpe.utils.config.YamlConfig;
+
+/**
+ * Immutable, typed view of config.yml
+ *
+ * Built once per (re)load and published through a volatile reference, so hot
+ * paths read plain fields instead of doing YamlConfig lookups. Each section is
+ * its own record, which lets a reload compare sections with equals() and only
+ * rebuild the components whose settings actually changed.
+ */
+public record ConfigSnapshot(Settings settings, Discord discord, Service service, RateLimits rateLimits,
+                             Countdown countdown, Responses responses, LinkState linkState, Webhook webhook,
+                             Metrics metrics) {
+
+    /**
+     * Read every value the plugin uses, with the same defaults as the bundled config.yml
+     */
+    public static ConfigSnapshot load(YamlConfig config) {
+        return new ConfigSnapshot(
+            new Settings(
+                config.getBoolean("settings.use_form_ui", true),
+                config.getBoolean("settings.enable_notifications", true),
+                config.getBoolean("settings.watch_config", true),
+                config.getBoolean("debug", false)
+            ),
+            new Discord(
+                config.getString("discord.invite_url", "https://discord.gg/pigraid"),
+                config.getString("discord.bot_command_channel", "#bot-commands")
+            ),
+            new Service(
+                config.getString("account_service.base_url", "http://localhost/api/accounts"),
+                config.getString("account_service.api_key", ""),
+                config.getBoolean("account_service.debug_requests", false),
+                new Timeouts(
+                    config.getInt("account_service.timeout", 15),
+                    config.getInt("account_service.timeouts.connect_ms", 3000),
+                    config.getInt("account_service.timeouts.generate_code_ms", 5000),
+                    config.getInt("account_service.timeouts.unlink_ms", 5000),
+                    config.getInt("account_service.timeouts.account_fetch_ms", 2000),
+                    config.getInt("account_service.timeouts.health_ms", 2000),
+                    config.getInt("account_service.retry.max_attempts", 3),
+                    config.getInt("account_service.retry.base_backoff_ms", 100),
+                    config.getInt("account_service.retry.max_backoff_ms", 1000)
+                ),
+                new Cache(
+                    config.getBoolean("cache.enabled", true),
+                    config.getInt("cache.max_entries", 2000),
+                    config.getInt("cache.ttl_seconds", 60),
+                    config.getInt("cache.negative_ttl_seconds", 15)
+                ),
+                new Breaker(
+                    config.getBoolean("circuit_breaker.enabled", true),
+                    config.getInt("circuit_breaker.window_size", 20),
+                    config.getInt("circuit_breaker.minimum_calls", 10),
+                    config.getInt("circuit_breaker.failure_rate_threshold", 50),
+                    config.getInt("circuit_breaker.slow_call_threshold_ms", 3000),
+                    config.getInt("circuit_breaker.slow_call_rate_threshold", 80),
+                    config.getInt("circuit_breaker.open_seconds", 15),
+                    config.getInt("circuit_breaker.half_open_calls", 3)
+                ),
+                new Http(
+                    config.getString("http.protocol", "auto"),
+                    config.getInt("http.keep_warm_seconds", 60),
+                    config.getBoolean("http.isolated", true),
+                    config.getInt("http.max_requests", 32),
+                    config.getInt("http.max_requests_per_host", 16),
+                    config.getInt("http.max_queued_requests", 200),
+                    config.getInt("http.max_idle_connections", 8),
+                    config.getInt("http.keep_alive_seconds", 300)
+                ),
+                new Batching(
+                    config.getBoolean("batching.enabled", false),
+                    config.getInt("batching.window_ms", 10),
+                    config.getInt("batching.max_batch_size", 50)
+                ),
+                new Prefetch(
+                    config.getBoolean("prefetch.enabled", false),
+                    config.getInt("prefetch.max_concurrent", 8),
+                    config.getInt("prefetch.max_per_second", 50)
+                )
+            ),
+            new RateLimits(
+                config.getBoolean("rate_limit.enabled", true),
+                config.getInt("rate_limit.link.per_minute", 4),
+                config.getInt("rate_limit.link.burst", 2),
+                config.getInt("rate_limit.status.per_minute", 10),
+                config.getInt("rate_limit.status.burst", 3),
+                config.getInt("rate_limit.unlink.per_minute", 4),
+                config.getInt("rate_limit.unlink.burst", 2),
+                config.getInt("rate_limit.global.per_second", 100),
+                config.getInt("rate_limit.global.burst", 200)
+            ),
+            new Countdown(
+                config.getBoolean("countdown.enabled", false),
+                config.getString("countdown.mode", "action_bar"),
+                config.getInt("countdown.update_interval_seconds", 1)
+            ),
+            new Responses(
+                config.getString("responses.executor", "platform"),
+                config.getInt("responses.threads", 4),
+                config.getInt("responses.max_queued", 1000)
+            ),
+            new LinkState(
+                config.getBoolean("link_state.enabled", true),
+                config.getInt("link_state.refresh_after_seconds", 300),
+                config.getInt("link_state.max_age_days", 90),
+                config.getInt("link_state.flush_interval_seconds", 5)
+            ),
+            new Webhook(
+                config.getBoolean("webhook.enabled", false),
+                config.getString("webhook.bind_address", "127.0.0.1"),
+                config.getInt("webhook.port", 8765),
+                config.getString("webhook.path", "/discordlink/events"),
+                config.getString("webhook.secret", ""),
+                config.getInt("webhook.max_clock_skew_seconds", 300),
+                config.getInt("webhook.threads", 2)
+            ),
+            new Metrics(
+                config.getBoolean("metrics.prometheus.enabled", false),
+                config.getString("metrics.prometheus.bind_address", "127.0.0.1"),
+                config.getInt("metrics.prometheus.port", 9465),
+                config.getString("metrics.prometheus.path", "/metrics")
+            )
+        );
+    }
+
+    public record Settings(boolean useFormUi, boolean enableNotifications, boolean watchConfig, boolean debug) {
+    }
+
+    public record Discord(String inviteUrl, String botCommandChannel) {
+    }
+
+    /**
+     * Everything the AccountService client and its caches are built from
+     */
+    public record Service(String baseUrl, String apiKey, boolean debugRequests, Timeouts timeouts, Cache cache,
+                          Breaker circuitBreaker, Http http, Batching batching, Prefetch prefetch) {
+    }
+
+    public record Timeouts(int totalSeconds, int connectMs, int generateCodeMs, int unlinkMs, int accountFetchMs,
+                           int healthMs, int retryMaxAttempts, int retryBaseBackoffMs, int retryMaxBackoffMs) {
+    }
+
+    public record Cache(boolean enabled, int maxEntries, int ttlSeconds, int negativeTtlSeconds) {
+    }
+
+    public record Breaker(boolean enabled, int windowSize, int minimumCalls, int failureRateThreshold,
+                          int slowCallThresholdMs, int slowCallRateThreshold, int openSeconds, int halfOpenCalls) {
+    }
+
+    public record Http(String protocol, int keepWarmSeconds, boolean isolated, int maxRequests, int maxRequestsPerHost,
+                       int maxQueuedRequests, int maxIdleConnections, int keepAliveSeconds) {
+    }
+
+    public record Batching(boolean enabled, int windowMs, int maxBatchSize) {
+    }
+
+    public record Prefetch(boolean enabled, int maxConcurrent, int maxPerSecond) {
+    }
+
+    public record RateLimits(boolean enabled, int linkPerMinute, int linkBurst, int statusPerMinute, int statusBurst,
+                             int unlinkPerMinute, int unlinkBurst, int globalPerSecond, int globalBurst) {
+    }
+
+    public record Countdown(boolean enabled, String mode, int updateIntervalSeconds) {
+    }
+
+    public record Responses(String executor, int threads, int maxQueued) {
+    }
+
+    public record LinkState(boolean enabled, int refreshAfterSeconds, int maxAgeDays, int flushIntervalSeconds) {
+    }
+
+    public record Webhook(boolean enabled, String bindAddress, int port, String path, String secret,
+                          int maxClockSkewSeconds, int threads) {
+    }
+
+    public record Metrics(boolean prometheusEnabled, String bindAddress, int port, String path) {
+    }
+}
@@ -0,0 +1,198 @@
+package gg.pigraid.discordlink.forms;
+
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.i18n.MessageTemplates;
+import xxAROX.WDForms.forms.elements.Button;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Per-locale pre-rendered skeletons of the link code form
+ *
+ * Everything except the code and the expiry text is rendered once per locale:
+ * title, button list, Discord URL, bot channel and all translated lines. The
+ * content is kept as literal segments around code/expiry slots, so sending a
+ * form is one pre-sized StringBuilder pass. Call {@link #reload()} after the
+ * config or language files change.
+ */
+public class LinkFormTemplates {
+    private static final char CODE_MARKER = '\u0001';
+    private static final char EXPIRY_MARKER = '\u0002';
+    private static final String CODE_ARG = String.valueOf(CODE_MARKER);
+    private static final String EXPIRY_ARG = String.valueOf(EXPIRY_MARKER);
+
+    private final DiscordLinkPlugin plugin;
+    private volatile Snapshot snapshot;
+
+    public LinkFormTemplates(DiscordLinkPlugin plugin) {
+        this.plugin = plugin;
+        this.snapshot = newSnapshot();
+    }
+
+    /**
+     * Re-read the Discord settings and re-render every locale rendered so far
+     * The new skeletons are swapped in at once, so no send renders on the command thread.
+     */
+    public void reload() {
+        Snapshot previous = snapshot;
+        Snapshot next = newSnapshot();
+        for (String language : previous.skeletons.keySet()) {
+            next.skeletons.put(language, render(plugin.getMessages(), next.discordUrl, next.botChannel, language));
+        }
+        this.snapshot = next;
+    }
+
+    private Snapshot newSnapshot() {
+        return new Snapshot(
+            plugin.getSettings().discord().inviteUrl(),
+            plugin.getSettings().discord().botCommandChannel()
+        );
+    }
+
+    /**
+     * Render the skeleton of every language file up front
+     *
+     * @param langFolder Folder with the extracted .lang files
+     * @param executor Runs the per-language renders
+     * @return Number of rendered skeletons
+     */
+    public int precompile(File langFolder, Executor executor) {
+        File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".lang"));
+        if (files == null) {
+            return 0;
+        }
+        List<CompletableFuture<Skeleton>> skeletons = new ArrayList<>(files.length);
+        for (File file : files) {
+            String language = file.getName().substring(0, file.getName().length() - ".lang".length());
+            skeletons.add(CompletableFuture.supplyAsync(() -> get(language), executor));
+        }
+        skeletons.forEach(CompletableFuture::join);
+        return files.length;
+    }
+
+    /**
+     * @param language Locale code (e.g., "en_US")
+     * @return The skeleton for the locale, rendered on first use
+     */
+    public Skeleton get(String language) {
+        Snapshot current = snapshot;
+        return current.skeletons.computeIfAbsent(language,
+            lang -> render(plugin.getMessages(), current.discordUrl, current.botChannel, lang));
+    }
+
+    static Skeleton render(MessageTemplates messages, String discordUrl, String botChannel, String language) {
+        StringBuilder content = new StringBuilder();
+        content.append("§l§6").append(CODE_MARKER).append("§r\n\n");
+        content.append(messages.tr(language, "link.form.instructions", CODE_ARG)).append("\n\n");
+        content.append(messages.tr(language, "link.form.channel", botChannel)).append("\n");
+        content.append(messages.tr(language, "link.form.expires", EXPIRY_ARG)).append("\n\n");
+        content.append("§7").append(discordUrl);
+
+        return Skeleton.compile(
+            messages.tr(language, "link.form.title"),
+            messages.tr(language, "forms.button.ok"),
+            content
+        );
+    }
+
+    /**
+     * Static parts of the link code form for one locale
+     */
+    public static final class Skeleton {
+        private final String title;
+        private final String buttonText;
+        private final List<Button> buttons;
+        private final String[] literals;
+        private final char[] slots;
+        private final int literalLength;
+
+        private Skeleton(String title, String buttonText, String[] literals, char[] slots) {
+            this.title = title;
+            this.buttonText = buttonText;
+            this.buttons = Collections.singletonList(new Button(
+                buttonText,
+                null,
+                button -> {
+                    // Form closed - do nothing
+                }
+            ));
+            this.literals = literals;
+            this.slots = slots;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * Split rendered content around the code/expiry markers
+         */
+        static Skeleton compile(String title, String buttonText, CharSequence content) {
+            List<String> literals = new ArrayList<>();
+            StringBuilder slots = new StringBuilder();
+            int start = 0;
+            for (int i = 0; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (c == CODE_MARKER || c == EXPIRY_MARKER) {
+                    literals.add(content.subSequence(start, i).toString());
+                    slots.append(c);
+                    start = i + 1;
+                }
+            }
+            literals.add(content.subSequence(start, content.length()).toString());
+
+            return new Skeleton(title, buttonText, literals.toArray(new String[0]), slots.toString().toCharArray());
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getButtonText() {
+            return buttonText;
+        }
+
+        /**
+         * @return The form's single OK button, shared by every send
+         */
+        public List<Button> getButtons() {
+            return buttons;
+        }
+
+        /**
+         * @return The form content with the code and expiry filled in
+         */
+        public String renderContent(String code, String expiryText) {
+            int length = literalLength;
+            for (char slot : slots) {
+                length += slot == CODE_MARKER ? code.length() : expiryText.length();
+            }
+
+            StringBuilder out = new StringBuilder(length);
+            out.append(literals[0]);
+            for (int s = 0; s < slots.length; s++) {
+                out.append(slots[s] == CODE_MARKER ? code : expiryText);
+                out.append(literals[s + 1]);
+            }
+            return out.toString();
+        }
+    }
+
+    private static final class Snapshot {
+        private final String discordUrl;
+        private final String botChannel;
+        private final ConcurrentHashMap<String, Skeleton> skeletons = new ConcurrentHashMap<>();
+
+        private Snapshot(String discordUrl, String botChannel) {
+            this.discordUrl = discordUrl;
+            this.botChannel = botChannel;
+        }
+    }
+}
@@ -3,12 +3,8 @@ package gg.pigraid.discordlink.forms;
 import dev.waterdog.waterdogpe.player.ProxiedPlayer;
 import gg.pigraid.discordlink.DiscordLinkPlugin;
 import gg.pigraid.feedbackutils.wdpe.SoundUtil;
-import xxAROX.WDForms.forms.elements.Button;
 import xxAROX.WDForms.forms.types.MenuForm;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Form UI for Discord linking
  */
@@ -26,44 +22,26 @@ public class LinkForms {
     public static void showLinkCodeForm(ProxiedPlayer player, String language, String code, int expiresInSeconds, DiscordLinkPlugin plugin) {
         SoundUtil.playFormOpen(player);
 
-        // Format expiry time
-        String expiryText;
-        if (expiresInSeconds >= 60) {
-            int minutes = expiresInSeconds / 60;
-            int seconds = expiresInSeconds % 60;
-            expiryText = minutes + "m " + seconds + "s";
-        } else {
-            expiryText = expiresInSeconds + "s";
-        }
-
-        // Get Discord info from config
-        String discordUrl = plugin.getConfiguration().getString("discord.invite_url", "https://discord.gg/pigraid");
-        String botChannel = plugin.getConfiguration().getString("discord.bot_command_channel", "#bot-commands");
-
-        // Build form content
-        StringBuilder content = new StringBuilder();
-        content.append("§l§6").append(code).append("§r\n\n");
-        content.append(plugin.getI18n().tr(language, "link.form.instructions", code)).append("\n\n");
-        content.append(plugin.getI18n().tr(language, "link.form.channel", botChannel)).append("\n");
-        content.append(plugin.getI18n().tr(language, "link.form.expires", expiryText)).append("\n\n");
-        content.append("§7").append(discordUrl);
+        // Only the code and expiry change between sends; the rest is pre-rendered per locale
+        LinkFormTemplates.Skeleton skeleton = plugin.getLinkFormTemplates().get(language);
+        buildLinkCodeForm(skeleton, code, expiresInSeconds).sendTo(player);
+    }
 
-        // Create buttons
-        List<Button> buttons = new ArrayList<>();
-        buttons.add(new Button(
-            plugin.getI18n().tr(language, "forms.button.ok"),
-            null,
-            button -> {
-                // Form closed - do nothing
-            }
-        ));
+    static MenuForm buildLinkCodeForm(LinkFormTemplates.Skeleton skeleton, String code, int expiresInSeconds) {
+        return MenuForm.menu()
+            .title(skeleton.getTitle())
+            .content(skeleton.renderContent(code, formatExpiry(expiresInSeconds)))
+            .buttons(skeleton.getButtons())
+            .build();
+    }
 
-        // Build and send form
-        MenuForm.menu()
-            .title(plugin.getI18n().tr(language, "link.form.title"))
-            .content(content.toString())
-            .buttons(buttons)
-            .build()
-            .sendTo(player);
+    /**
+     * Format an expiry time as "1m 30s" or "45s"
+     */
+    public static String formatExpiry(int expiresInSeconds) {
+        if (expiresInSeconds >= 60) {
+            return expiresInSeconds / 60 + "m " + expiresInSeconds % 60 + "s";
+        }
+        return expiresInSeconds + "s";
     }
 }
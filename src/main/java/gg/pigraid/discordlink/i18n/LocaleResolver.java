@@ -0,0 +1,130 @@
+package gg.pigraid.discordlink.i18n;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps client locale codes to a locale we ship a language file for
+ *
+ * Resolution order: the exact locale, its regional fallbacks
+ * (e.g. en_AU -> en_GB, es_AR -> es_MX), any shipped locale of the same
+ * language (alphabetically first), then the default locale. Results are
+ * memoized per normalized code; client codes are arbitrary strings, so the
+ * memo stops growing at a fixed size and further codes are resolved uncached.
+ */
+public class LocaleResolver {
+    private static final int MAX_MEMOIZED = 256;
+
+    // Next locale to try for a regional variant; chains are followed until a shipped one is found
+    private static final Map<String, String> REGIONAL_FALLBACKS = Map.ofEntries(
+        Map.entry("en_AU", "en_GB"),
+        Map.entry("en_NZ", "en_GB"),
+        Map.entry("en_IE", "en_GB"),
+        Map.entry("en_IN", "en_GB"),
+        Map.entry("en_GB", "en_US"),
+        Map.entry("en_CA", "en_US"),
+        Map.entry("es_AR", "es_MX"),
+        Map.entry("es_CL", "es_MX"),
+        Map.entry("es_CO", "es_MX"),
+        Map.entry("es_MX", "es_ES"),
+        Map.entry("fr_BE", "fr_FR"),
+        Map.entry("fr_CH", "fr_FR"),
+        Map.entry("fr_CA", "fr_FR"),
+        Map.entry("pt_PT", "pt_BR"),
+        Map.entry("zh_HK", "zh_TW"),
+        Map.entry("zh_TW", "zh_CN")
+    );
+
+    private final Set<String> available;
+    // Sorted so the same-language fallback does not depend on set iteration order
+    private final List<String> availableSorted;
+    private final String defaultLocale;
+    private final ConcurrentHashMap<String, String> resolved = new ConcurrentHashMap<>();
+
+    public LocaleResolver(Set<String> available, String defaultLocale) {
+        this.available = Set.copyOf(available);
+        this.availableSorted = available.stream().sorted().toList();
+        this.defaultLocale = defaultLocale;
+    }
+
+    /**
+     * Create a resolver for the .lang files in a folder
+     */
+    public static LocaleResolver fromLanguageFolder(File langFolder, String defaultLocale) {
+        Set<String> locales = new HashSet<>();
+        File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".lang"));
+        if (files != null) {
+            for (File file : files) {
+                locales.add(file.getName().substring(0, file.getName().length() - ".lang".length()));
+            }
+        }
+        return new LocaleResolver(locales, defaultLocale);
+    }
+
+    /**
+     * @param code Client locale code, e.g. "en_AU" or "en-au"
+     * @return The best shipped locale
+     */
+    public String resolve(String code) {
+        if (code == null || code.isEmpty()) {
+            return defaultLocale;
+        }
+        String normalized = normalize(code);
+        String cached = resolved.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        String locale = computeResolution(normalized);
+        if (resolved.size() < MAX_MEMOIZED) {
+            resolved.putIfAbsent(normalized, locale);
+        }
+        return locale;
+    }
+
+    private String computeResolution(String normalized) {
+        for (String candidate : candidates(normalized)) {
+            if (available.contains(candidate)) {
+                return candidate;
+            }
+        }
+
+        // Any shipped locale of the same language
+        String language = normalized.split("_", 2)[0] + "_";
+        for (String locale : availableSorted) {
+            if (locale.startsWith(language)) {
+                return locale;
+            }
+        }
+        return defaultLocale;
+    }
+
+    /**
+     * The locale followed by its chain of regional fallbacks
+     */
+    private static List<String> candidates(String locale) {
+        List<String> chain = new ArrayList<>();
+        String current = locale;
+        while (current != null && !chain.contains(current)) {
+            chain.add(current);
+            current = REGIONAL_FALLBACKS.get(current);
+        }
+        return chain;
+    }
+
+    /**
+     * "en-au" / "EN_au" -> "en_AU"
+     */
+    static String normalize(String code) {
+        String[] parts = code.trim().replace('-', '_').split("_", 2);
+        if (parts.length == 1) {
+            return parts[0].toLowerCase(Locale.ROOT);
+        }
+        return parts[0].toLowerCase(Locale.ROOT) + "_" + parts[1].toUpperCase(Locale.ROOT);
+    }
+}
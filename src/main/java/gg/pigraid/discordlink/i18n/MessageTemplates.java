@@ -0,0 +1,200 @@
+package gg.pigraid.discordlink.i18n;
+
+import gg.pigraid.waterdogi18n.WaterdogI18n;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Compiled translation templates on top of WaterdogI18n
+ *
+ * Each (locale, key) pair is resolved through WaterdogI18n once, with marker
+ * arguments in place of the real ones, and split into literal segments and
+ * argument slots. Rendering is then a single pre-sized StringBuilder pass, and
+ * messages without arguments are returned as the same cached String.
+ * Because the template comes from WaterdogI18n itself, fallbacks and escapes
+ * behave exactly as with a direct tr() call.
+ */
+public class MessageTemplates {
+    private static final char MARKER_START = '\u0001';
+    private static final char MARKER_END = '\u0002';
+    private static final String[] MARKER_ARGS = new String[9];
+
+    static {
+        for (int i = 0; i < MARKER_ARGS.length; i++) {
+            MARKER_ARGS[i] = MARKER_START + Integer.toString(i) + MARKER_END;
+        }
+    }
+
+    private final WaterdogI18n i18n;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Template>> templates = new ConcurrentHashMap<>();
+
+    public MessageTemplates(WaterdogI18n i18n) {
+        this.i18n = i18n;
+    }
+
+    /**
+     * Translate a message
+     *
+     * @param language Locale code (e.g., "en_US")
+     * @param key Translation key
+     * @param args Values for %1, %2, ...
+     * @return The rendered message
+     */
+    public String tr(String language, String key, String... args) {
+        return templates
+            .computeIfAbsent(language, lang -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, k -> compile(language, k))
+            .render(args);
+    }
+
+    /**
+     * Compile every key of every language file up front on the calling thread
+     *
+     * @param langFolder Folder with the extracted .lang files
+     * @return Number of compiled templates
+     */
+    public int precompile(File langFolder) {
+        return precompile(langFolder, Runnable::run);
+    }
+
+    /**
+     * Compile every key of every language file up front, one language per task
+     *
+     * @param langFolder Folder with the extracted .lang files
+     * @param executor Runs the per-language tasks
+     * @return Number of compiled templates
+     */
+    public int precompile(File langFolder, Executor executor) {
+        File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".lang"));
+        if (files == null) {
+            return 0;
+        }
+        List<CompletableFuture<Integer>> languages = new ArrayList<>(files.length);
+        for (File file : files) {
+            languages.add(CompletableFuture.supplyAsync(() -> precompile(file), executor));
+        }
+        int compiled = 0;
+        for (CompletableFuture<Integer> language : languages) {
+            compiled += language.join();
+        }
+        return compiled;
+    }
+
+    private int precompile(File file) {
+        String language = file.getName().substring(0, file.getName().length() - ".lang".length());
+        ConcurrentHashMap<String, Template> byKey = templates.computeIfAbsent(language, lang -> new ConcurrentHashMap<>());
+        int compiled = 0;
+        for (String key : readKeys(file)) {
+            byKey.computeIfAbsent(key, k -> compile(language, k));
+            compiled++;
+        }
+        return compiled;
+    }
+
+    /**
+     * Drop all compiled templates (after language files changed)
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    private Template compile(String language, String key) {
+        String resolved = i18n.tr(language, key, MARKER_ARGS);
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < resolved.length()) {
+            char c = resolved.charAt(i);
+            int end = c == MARKER_START ? resolved.indexOf(MARKER_END, i) : -1;
+            if (end > i + 1) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(Integer.parseInt(resolved.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) {
+            slotArray[s] = slots.get(s);
+        }
+        return new Template(literals.toArray(new String[0]), slotArray);
+    }
+
+    private static List<String> readKeys(File file) {
+        List<String> keys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int separator = line.indexOf('=');
+                if (!line.isEmpty() && !line.startsWith("#") && separator > 0) {
+                    keys.add(line.substring(0, separator).trim());
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable file - its keys are compiled lazily on first use
+        }
+        return keys;
+    }
+
+    /**
+     * Literal segments interleaved with argument slots:
+     * literals[0] args[slots[0]] literals[1] ... literals[n]
+     */
+    private static final class Template {
+        private final String[] literals;
+        private final int[] slots;
+        private final int literalLength;
+
+        private Template(String[] literals, int[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        private String render(String[] args) {
+            if (slots.length == 0) {
+                return literals[0];
+            }
+
+            int length = literalLength;
+            for (int slot : slots) {
+                length += slot < args.length && args[slot] != null ? args[slot].length() : 3;
+            }
+
+            StringBuilder out = new StringBuilder(length);
+            out.append(literals[0]);
+            for (int s = 0; s < slots.length; s++) {
+                int slot = slots[s];
+                if (slot < args.length) {
+                    out.append(args[slot]);
+                } else {
+                    // Same as an unfilled placeholder
+                    out.append('%').append(slot + 1);
+                }
+                out.append(literals[s + 1]);
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package gg.pigraid.discordlink.i18n;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolved language of each online player, computed once per session
+ *
+ * Keyed by UUID rather than XUID: offline-mode players all have an empty XUID.
+ */
+public class PlayerLanguageCache {
+    private final LocaleResolver resolver;
+    private final ConcurrentHashMap<UUID, String> languages = new ConcurrentHashMap<>();
+
+    public PlayerLanguageCache(LocaleResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * @return The player's resolved locale (client language on first use)
+     */
+    public String get(ProxiedPlayer player) {
+        return languages.computeIfAbsent(player.getUniqueId(),
+            uuid -> resolver.resolve(readClientLanguage(player)));
+    }
+
+    /**
+     * Override the client language with an account preference
+     */
+    public void setPreferred(ProxiedPlayer player, String language) {
+        languages.put(player.getUniqueId(), resolver.resolve(language));
+    }
+
+    /**
+     * Forget a player's language (on disconnect)
+     */
+    public void evict(ProxiedPlayer player) {
+        languages.remove(player.getUniqueId());
+    }
+
+    public void clear() {
+        languages.clear();
+    }
+
+    /**
+     * Get player's language from login data
+     */
+    private static String readClientLanguage(ProxiedPlayer player) {
+        try {
+            JsonObject extraData = player.getLoginData().getClientData();
+            if (extraData.has("LanguageCode")) {
+                return extraData.get("LanguageCode").getAsString();
+            }
+        } catch (JsonParseException e) {
+            // Fallback to default if error
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package gg.pigraid.discordlink.listeners;
+
+import dev.waterdog.waterdogpe.event.EventPriority;
+import dev.waterdog.waterdogpe.event.defaults.PlayerDisconnectedEvent;
+import dev.waterdog.waterdogpe.event.defaults.PlayerLoginEvent;
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.commands.CommandRateLimiter;
+import gg.pigraid.discordlink.players.CodeCountdown;
+import gg.pigraid.discordlink.players.LinkStatePrefetcher;
+
+/**
+ * Tracks player sessions for the plugin's per-player state
+ */
+public class PlayerListener {
+
+    private final DiscordLinkPlugin plugin;
+
+    public PlayerListener(DiscordLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Subscribe to WaterdogPE player events
+     */
+    public void register() {
+        plugin.getProxy().getEventManager().subscribe(PlayerLoginEvent.class, this::onLogin, EventPriority.HIGHEST);
+        plugin.getProxy().getEventManager().subscribe(PlayerDisconnectedEvent.class, this::onDisconnect);
+    }
+
+    private void onLogin(PlayerLoginEvent event) {
+        if (event.isCancelled()) {
+            return;
+        }
+        plugin.getPlayerIndex().add(event.getPlayer());
+
+        LinkStatePrefetcher prefetcher = plugin.getLinkStatePrefetcher();
+        if (prefetcher != null) {
+            prefetcher.onLogin(event.getPlayer().getLoginData().getXuid());
+        }
+    }
+
+    private void onDisconnect(PlayerDisconnectedEvent event) {
+        plugin.getPlayerIndex().remove(event.getPlayer());
+        plugin.getPlayerLanguages().evict(event.getPlayer());
+
+        if (plugin.getServiceClient() != null) {
+            plugin.getServiceClient().forgetActiveCode(event.getPlayer().getLoginData().getXuid());
+        }
+
+        CommandRateLimiter rateLimiter = plugin.getCommandRateLimiter();
+        if (rateLimiter != null) {
+            rateLimiter.evict(event.getPlayer());
+        }
+
+        CodeCountdown countdown = plugin.getCodeCountdown();
+        if (countdown != null) {
+            countdown.stop(event.getPlayer());
+        }
+
+        LinkStatePrefetcher prefetcher = plugin.getLinkStatePrefetcher();
+        if (prefetcher != null) {
+            prefetcher.onDisconnect(event.getPlayer().getLoginData().getXuid());
+        }
+    }
+}
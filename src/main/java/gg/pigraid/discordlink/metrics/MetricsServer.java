@@ -0,0 +1,187 @@
+package gg.pigraid.discordlink.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.api.AccountServiceEndpoint;
+import gg.pigraid.discordlink.api.CircuitBreaker;
+import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.LatencyHistogram;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import gg.pigraid.discordlink.api.LinkStatusCache;
+import gg.pigraid.discordlink.api.ServiceMetrics;
+import gg.pigraid.discordlink.commands.ResponseExecutor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local endpoint exposing plugin metrics in Prometheus text format
+ */
+public class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final DiscordLinkPlugin plugin;
+    private final String bindAddress;
+    private final int port;
+    private final String path;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsServer(DiscordLinkPlugin plugin, String bindAddress, int port, String path) {
+        this.plugin = plugin;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.path = path;
+    }
+
+    /**
+     * Start serving scrapes
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public void start() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext(path, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * @return All metrics in Prometheus text exposition format
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(4096);
+        ServiceMetrics metrics = plugin.getServiceMetrics();
+
+        out.append("# HELP discordlink_request_duration_seconds AccountService request latency by endpoint and outcome\n");
+        out.append("# TYPE discordlink_request_duration_seconds summary\n");
+        StringBuilder max = new StringBuilder();
+        for (AccountServiceEndpoint endpoint : AccountServiceEndpoint.values()) {
+            for (ServiceMetrics.Outcome outcome : ServiceMetrics.Outcome.values()) {
+                LatencyHistogram.Snapshot snapshot = metrics.get(endpoint, outcome).snapshot();
+                String labels = "endpoint=\"" + endpoint.getId() + "\",outcome=\"" + outcome.getId() + "\"";
+                quantile(out, labels, "0.5", snapshot.getP50());
+                quantile(out, labels, "0.95", snapshot.getP95());
+                quantile(out, labels, "0.99", snapshot.getP99());
+                out.append("discordlink_request_duration_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(snapshot.getSumMicros())).append('\n');
+                out.append("discordlink_request_duration_seconds_count{").append(labels).append("} ")
+                    .append(snapshot.getCount()).append('\n');
+                max.append("discordlink_request_duration_max_seconds{").append(labels).append("} ")
+                    .append(seconds(snapshot.getMax())).append('\n');
+            }
+        }
+        out.append("# HELP discordlink_request_duration_max_seconds Slowest AccountService request since startup\n");
+        out.append("# TYPE discordlink_request_duration_max_seconds gauge\n");
+        out.append(max);
+
+        DiscordLinkServiceClient client = plugin.getServiceClient();
+        LinkStatusCache cache = client != null ? client.getLinkStatusCache() : null;
+        if (cache != null) {
+            counter(out, "discordlink_cache_hits_total", "Link status cache hits", cache.getHits());
+            counter(out, "discordlink_cache_misses_total", "Link status cache misses", cache.getMisses());
+            counter(out, "discordlink_cache_evictions_total", "Link status cache LRU evictions", cache.getEvictions());
+            gauge(out, "discordlink_cache_entries", "Link status cache entries", cache.size());
+        }
+
+        CircuitBreaker breaker = client != null ? client.getCircuitBreaker() : null;
+        if (breaker != null) {
+            gauge(out, "discordlink_circuit_breaker_state", "Circuit breaker state (0 closed, 1 half-open, 2 open)",
+                breaker.getState() == CircuitBreaker.State.OPEN ? 2 : breaker.getState() == CircuitBreaker.State.HALF_OPEN ? 1 : 0);
+            counter(out, "discordlink_circuit_breaker_rejected_total", "Calls rejected by the open circuit breaker",
+                breaker.getRejectedCalls());
+        }
+
+        ResponseExecutor responses = plugin.getResponseExecutor();
+        if (responses != null) {
+            gauge(out, "discordlink_response_queue_depth", "Command responses waiting for a thread", responses.getQueueDepth());
+            gauge(out, "discordlink_response_queue_peak", "Most command responses waiting at once", responses.getPeakQueueDepth());
+            counter(out, "discordlink_responses_total", "Command responses sent", responses.getExecuted());
+            counter(out, "discordlink_responses_dropped_total", "Command responses skipped because the player left",
+                responses.getDropped());
+            counter(out, "discordlink_responses_rejected_total", "Command responses replaced by a busy message because the queue was full",
+                responses.getRejected());
+            LatencyHistogram.Snapshot wait = responses.getQueueWait().snapshot();
+            out.append("# HELP discordlink_response_queue_wait_seconds Time command responses waited for a thread\n");
+            out.append("# TYPE discordlink_response_queue_wait_seconds summary\n");
+            waitQuantile(out, "0.5", wait.getP50());
+            waitQuantile(out, "0.99", wait.getP99());
+            out.append("discordlink_response_queue_wait_seconds_sum ").append(seconds(wait.getSumMicros())).append('\n');
+            out.append("discordlink_response_queue_wait_seconds_count ").append(wait.getCount()).append('\n');
+        }
+
+        LinkStateStore stateStore = plugin.getLinkStateStore();
+        if (stateStore != null) {
+            gauge(out, "discordlink_link_state_entries", "Players in the persisted link state store", stateStore.size());
+            gauge(out, "discordlink_link_state_log_records", "Records in link-state.bin including superseded ones",
+                stateStore.getLogRecords());
+        }
+
+        gauge(out, "discordlink_online_players", "Players in the XUID index", plugin.getPlayerIndex().size());
+        return out.toString();
+    }
+
+    private static void quantile(StringBuilder out, String labels, String quantile, long micros) {
+        out.append("discordlink_request_duration_seconds{").append(labels)
+            .append(",quantile=\"").append(quantile).append("\"} ").append(seconds(micros)).append('\n');
+    }
+
+    private static void waitQuantile(StringBuilder out, String quantile, long micros) {
+        out.append("discordlink_response_queue_wait_seconds{quantile=\"").append(quantile).append("\"} ")
+            .append(seconds(micros)).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+}
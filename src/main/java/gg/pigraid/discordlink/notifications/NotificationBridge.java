@@ -0,0 +1,99 @@
+package gg.pigraid.discordlink.notifications;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import dev.waterdog.waterdogpe.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-resolved handles into NotificationDispatcher-WDPE
+ *
+ * NotificationDispatcher is an optional dependency loaded by its own class
+ * loader, so it is reached via reflection. The classes, constructor, method
+ * and enum constants are resolved once per plugin instance instead of on
+ * every notification.
+ */
+public final class NotificationBridge {
+    private static final String API_CLASS = "dev.pigraid.notificationdispatcher.NotificationAPI";
+    private static final String TYPE_CLASS = "dev.pigraid.notificationdispatcher.models.NotificationType";
+    private static final String NOTIFICATION_CLASS = "dev.pigraid.notificationdispatcher.models.Notification";
+
+    private final Plugin plugin;
+    private final Map<String, Object> notificationTypes;
+    // (String message, NotificationType type) -> Notification
+    private final MethodHandle newNotification;
+    // NotificationAPI.sendMessage(ProxiedPlayer, Notification)
+    private final MethodHandle sendMessage;
+
+    private NotificationBridge(Plugin plugin, Map<String, Object> notificationTypes,
+                               MethodHandle newNotification, MethodHandle sendMessage) {
+        this.plugin = plugin;
+        this.notificationTypes = notificationTypes;
+        this.newNotification = newNotification;
+        this.sendMessage = sendMessage;
+    }
+
+    /**
+     * Resolve all handles from a loaded NotificationDispatcher-WDPE plugin
+     *
+     * @param plugin The NotificationDispatcher-WDPE plugin instance
+     * @throws ReflectiveOperationException if its API has changed
+     */
+    public static NotificationBridge resolve(Plugin plugin) throws ReflectiveOperationException {
+        ClassLoader classLoader = plugin.getClass().getClassLoader();
+        Class<?> apiClass = Class.forName(API_CLASS, true, classLoader);
+        Class<?> typeClass = Class.forName(TYPE_CLASS, true, classLoader);
+        Class<?> notificationClass = Class.forName(NOTIFICATION_CLASS, true, classLoader);
+
+        Map<String, Object> types = new HashMap<>();
+        for (Object constant : typeClass.getEnumConstants()) {
+            types.put(constant.toString(), constant);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle constructor = lookup.unreflectConstructor(notificationClass.getConstructor(String.class, typeClass))
+            .asType(MethodType.methodType(Object.class, String.class, Object.class));
+        MethodHandle send = lookup.unreflect(apiClass.getMethod("sendMessage", ProxiedPlayer.class, notificationClass))
+            .asType(MethodType.methodType(void.class, ProxiedPlayer.class, Object.class));
+
+        return new NotificationBridge(plugin, Map.copyOf(types), constructor, send);
+    }
+
+    /**
+     * @return true if these handles were resolved from the given plugin instance
+     */
+    public boolean isFor(Plugin plugin) {
+        return this.plugin == plugin;
+    }
+
+    /**
+     * Send a notification to a player
+     *
+     * @param player Target player
+     * @param notificationType Notification type name (e.g., "Success")
+     * @param message The message to send
+     * @return false if the notification type is unknown
+     * @throws ReflectiveOperationException if NotificationDispatcher failed
+     */
+    public boolean send(ProxiedPlayer player, String notificationType, String message) throws ReflectiveOperationException {
+        Object type = notificationTypes.get(notificationType);
+        if (type == null) {
+            return false;
+        }
+
+        try {
+            Object notification = (Object) newNotification.invokeExact(message, type);
+            sendMessage.invokeExact(player, notification);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t, t.getMessage());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,190 @@
+package gg.pigraid.discordlink.players;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.forms.LinkForms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live expiry countdown for pending link codes
+ *
+ * All countdowns share one timer thread ticking once per second. Expiries are
+ * kept in a hashed timer wheel (one slot per second), so starting or stopping a
+ * countdown is O(1) and a tick only looks at the slot that is due. Each entry
+ * keeps its absolute deadline tick; an entry due more than one revolution
+ * ahead stays in its slot and is skipped until the revolution it is due in.
+ * Each tick also refreshes the action bar or title of every pending player.
+ * Countdowns are keyed by UUID, since offline-mode players have no XUID.
+ */
+public class CodeCountdown {
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_MASK = WHEEL_SLOTS - 1;
+
+    public enum Mode {
+        ACTION_BAR,
+        TITLE;
+
+        static Mode fromConfig(String value) {
+            return "title".equalsIgnoreCase(value) ? TITLE : ACTION_BAR;
+        }
+    }
+
+    private final DiscordLinkPlugin plugin;
+    private final Mode mode;
+    private final int updateIntervalSeconds;
+    private final ConcurrentHashMap<UUID, Entry> active = new ConcurrentHashMap<>();
+    // Wheel slots and the tick counter, guarded by wheelLock so a deadline is
+    // always slotted against the tick the wheel is actually at
+    private final Object wheelLock = new Object();
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Entry>[] wheel = new ArrayDeque[WHEEL_SLOTS];
+    private final ScheduledExecutorService scheduler;
+    private long tick;
+
+    /**
+     * @param mode "action_bar" or "title"
+     * @param updateIntervalSeconds Seconds between display refreshes
+     */
+    public CodeCountdown(DiscordLinkPlugin plugin, String mode, int updateIntervalSeconds) {
+        this.plugin = plugin;
+        this.mode = Mode.fromConfig(mode);
+        this.updateIntervalSeconds = Math.max(1, updateIntervalSeconds);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-Countdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::advance, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start (or restart) the countdown for a player's code
+     */
+    public void start(ProxiedPlayer player, String language, String code, int expiresInSeconds) {
+        if (expiresInSeconds <= 0) {
+            return;
+        }
+        Entry entry;
+        Entry previous;
+        synchronized (wheelLock) {
+            entry = new Entry(player, language, code, tick + expiresInSeconds);
+            previous = active.put(player.getUniqueId(), entry);
+            wheel[(int) (entry.expiresAtTick & WHEEL_MASK)].add(entry);
+        }
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        display(entry, expiresInSeconds);
+    }
+
+    /**
+     * Stop a player's countdown (link completed, disconnect, ...)
+     */
+    public void stop(ProxiedPlayer player) {
+        Entry entry = active.remove(player.getUniqueId());
+        if (entry != null) {
+            // The wheel slot is cleaned up lazily when it comes due
+            entry.cancelled = true;
+        }
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        active.clear();
+    }
+
+    private void advance() {
+        try {
+            long now;
+            List<Entry> expired = new ArrayList<>();
+            synchronized (wheelLock) {
+                now = ++tick;
+                Iterator<Entry> due = wheel[(int) (now & WHEEL_MASK)].iterator();
+                while (due.hasNext()) {
+                    Entry entry = due.next();
+                    if (entry.cancelled) {
+                        due.remove();
+                    } else if (entry.expiresAtTick <= now) {
+                        due.remove();
+                        expired.add(entry);
+                    }
+                    // Otherwise due in a later revolution - stays in this slot
+                }
+            }
+            for (Entry entry : expired) {
+                expire(entry);
+            }
+
+            if (now % updateIntervalSeconds == 0) {
+                for (Entry entry : active.values()) {
+                    int remaining = (int) (entry.expiresAtTick - now);
+                    if (remaining > 0) {
+                        display(entry, remaining);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().warn("Link code countdown tick failed: " + e.getMessage());
+        }
+    }
+
+    private void expire(Entry entry) {
+        if (!active.remove(entry.player.getUniqueId(), entry)) {
+            return;
+        }
+        if (plugin.getServiceClient() != null) {
+            plugin.getServiceClient().forgetActiveCode(entry.player.getLoginData().getXuid());
+        }
+        if (entry.player.isConnected()) {
+            send(entry, plugin.getMessages().tr(entry.language, "link.countdown.expired"));
+        }
+    }
+
+    private void display(Entry entry, int remainingSeconds) {
+        if (!entry.player.isConnected()) {
+            stop(entry.player);
+            return;
+        }
+        send(entry, plugin.getMessages().tr(entry.language, "link.countdown",
+            entry.code, LinkForms.formatExpiry(remainingSeconds)));
+    }
+
+    private void send(Entry entry, String message) {
+        if (mode == Mode.TITLE) {
+            entry.player.sendTitle("", message, 0, 30, 5);
+        } else {
+            entry.player.sendTip(message);
+        }
+    }
+
+    private static final class Entry {
+        private final ProxiedPlayer player;
+        private final String language;
+        private final String code;
+        private final long expiresAtTick;
+        private volatile boolean cancelled;
+
+        private Entry(ProxiedPlayer player, String language, String code, long expiresAtTick) {
+            this.player = player;
+            this.language = language;
+            this.code = code;
+            this.expiresAtTick = expiresAtTick;
+        }
+    }
+}
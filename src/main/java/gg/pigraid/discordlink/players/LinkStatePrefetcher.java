@@ -0,0 +1,112 @@
+package gg.pigraid.discordlink.players;
+
+import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.SessionLinkStore;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches each joining player's link state in the background
+ *
+ * Joins are queued and drained at a bounded rate with a bounded number of
+ * requests in flight, so a reconnect wave after a proxy restart does not
+ * flood AccountService.
+ */
+public class LinkStatePrefetcher {
+    private static final long TICK_MILLIS = 50;
+
+    private final DiscordLinkServiceClient client;
+    private final SessionLinkStore sessionStore;
+    private final Semaphore inFlight;
+    private final double permitsPerTick;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler;
+    private double tickBudget;
+
+    /**
+     * @param maxConcurrent Maximum prefetch requests in flight
+     * @param maxPerSecond Maximum prefetch requests started per second
+     */
+    public LinkStatePrefetcher(DiscordLinkServiceClient client, SessionLinkStore sessionStore,
+                               int maxConcurrent, int maxPerSecond) {
+        this.client = client;
+        this.sessionStore = sessionStore;
+        this.inFlight = new Semaphore(Math.max(1, maxConcurrent));
+        this.permitsPerTick = Math.max(1, maxPerSecond) * TICK_MILLIS / 1000.0;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-Prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::drain, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start tracking a joining player and queue their prefetch
+     * Players without a valid XUID (offline mode) have no account to fetch and are skipped.
+     */
+    public void onLogin(String xuid) {
+        if (!isValidXuid(xuid)) {
+            return;
+        }
+        sessionStore.track(xuid);
+        queue.add(xuid);
+    }
+
+    /**
+     * Stop tracking a player; a queued prefetch for them is skipped
+     */
+    public void onDisconnect(String xuid) {
+        if (isValidXuid(xuid)) {
+            sessionStore.untrack(xuid);
+        }
+    }
+
+    private void drain() {
+        // Budget carries fractions over so low rates still make progress
+        tickBudget = Math.min(tickBudget + permitsPerTick, Math.max(1, permitsPerTick));
+        while (tickBudget >= 1 && !queue.isEmpty()) {
+            if (!inFlight.tryAcquire()) {
+                return;
+            }
+            String xuid = queue.poll();
+            if (xuid == null || !sessionStore.isTracked(xuid) || sessionStore.get(xuid) != null) {
+                inFlight.release();
+                continue;
+            }
+            tickBudget--;
+            client.getAccountByXuid(xuid).whenComplete((account, ex) -> inFlight.release());
+        }
+    }
+
+    /**
+     * Same rule as the link state store: 1 to 18 digits, not all zeros
+     */
+    private static boolean isValidXuid(String xuid) {
+        if (xuid == null || xuid.isEmpty() || xuid.length() > 18) {
+            return false;
+        }
+        boolean nonZero = false;
+        for (int i = 0; i < xuid.length(); i++) {
+            char c = xuid.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        queue.clear();
+    }
+}
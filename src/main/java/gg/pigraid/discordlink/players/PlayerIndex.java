@@ -0,0 +1,60 @@
+package gg.pigraid.discordlink.players;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent XUID to online player index
+ * Kept up to date by login and disconnect events so lookups are O(1)
+ */
+public class PlayerIndex {
+    private final ConcurrentHashMap<String, ProxiedPlayer> playersByXuid = new ConcurrentHashMap<>();
+
+    /**
+     * @param xuid Player's XUID
+     * @return The online player, or null if not online
+     */
+    public ProxiedPlayer get(String xuid) {
+        return xuid == null ? null : playersByXuid.get(xuid);
+    }
+
+    public void add(ProxiedPlayer player) {
+        String xuid = player.getLoginData().getXuid();
+        if (xuid != null && !xuid.isEmpty()) {
+            put(xuid, player);
+        }
+    }
+
+    // Keyed variants, also used by PlayerIndexBenchmark which has no live sessions
+    void put(String xuid, ProxiedPlayer player) {
+        playersByXuid.put(xuid, player);
+    }
+
+    void remove(String xuid, ProxiedPlayer player) {
+        playersByXuid.remove(xuid, player);
+    }
+
+    /**
+     * Remove a player, unless the XUID already belongs to a newer session
+     */
+    public void remove(ProxiedPlayer player) {
+        String xuid = player.getLoginData().getXuid();
+        if (xuid != null) {
+            remove(xuid, player);
+        }
+    }
+
+    /**
+     * Replace the index content with the given players (used on enable/reload)
+     */
+    public void reset(Collection<ProxiedPlayer> players) {
+        playersByXuid.clear();
+        players.forEach(this::add);
+    }
+
+    public int size() {
+        return playersByXuid.size();
+    }
+}
@@ -0,0 +1,49 @@
+package gg.pigraid.discordlink.webhook;
+
+import dev.waterdog.waterdogpe.player.ProxiedPlayer;
+import gg.pigraid.discordlink.DiscordLinkPlugin;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import gg.pigraid.discordlink.api.models.LinkEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Applies verified webhook events to the plugin: drops stale cached state,
+ * records the new link state and notifies the player if online
+ */
+public class LinkEventHandler implements Consumer<LinkEvent> {
+    private final DiscordLinkPlugin plugin;
+
+    public LinkEventHandler(DiscordLinkPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void accept(LinkEvent event) {
+        String xuid = event.getXuid();
+        boolean linked = LinkEvent.TYPE_LINKED.equals(event.getType());
+        if (plugin.getServiceClient() != null) {
+            plugin.getServiceClient().invalidateCachedAccount(xuid);
+        }
+        LinkStateStore stateStore = plugin.getLinkStateStore();
+        if (stateStore != null) {
+            stateStore.record(xuid, linked ? LinkStateStore.State.LINKED : LinkStateStore.State.NOT_LINKED);
+        }
+        ProxiedPlayer player = plugin.getPlayerIndex().get(xuid);
+        if (player != null && plugin.getCodeCountdown() != null) {
+            // Link completed (or undone) - the pending code is no longer relevant
+            plugin.getCodeCountdown().stop(player);
+        }
+
+        if (plugin.getSettings().settings().debug()) {
+            plugin.getLogger().info("Received " + event.getType() + " event for xuid " + xuid);
+        }
+
+        if (linked && plugin.getSettings().settings().enableNotifications()) {
+            if (player != null) {
+                String language = plugin.getPlayerLanguages().get(player);
+                plugin.sendNotification(xuid, "Success", plugin.getMessages().tr(language, "notification.linked"));
+            }
+        }
+    }
+}
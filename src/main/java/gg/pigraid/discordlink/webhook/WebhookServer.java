@@ -0,0 +1,247 @@
+package gg.pigraid.discordlink.webhook;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gg.pigraid.discordlink.api.models.LinkEvent;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Embedded receiver for link/unlink events pushed by AccountService
+ *
+ * Events are POSTed as JSON with two headers:
+ * - X-Timestamp: Unix time in seconds when the event was signed
+ * - X-Signature: "sha256=" + hex HMAC-SHA256 of (timestamp + "." + body) with the shared secret
+ *
+ * Events outside the allowed clock skew are rejected. Within the skew window
+ * every accepted signature is remembered, and a repeated request is
+ * acknowledged without being applied again, so a captured event cannot be
+ * replayed. Unknown event types are rejected with 400.
+ */
+public class WebhookServer {
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    // Drop expired signatures after this many accepted events
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final Consumer<LinkEvent> listener;
+    private final String bindAddress;
+    private final int port;
+    private final String path;
+    private final byte[] secret;
+    private final long maxClockSkewSeconds;
+    private final int threads;
+    private final Gson gson = new Gson();
+    private final ThreadLocal<Mac> mac;
+    // Accepted signatures within the skew window, with their signing time in seconds
+    private final ConcurrentHashMap<ByteBuffer, Long> seenSignatures = new ConcurrentHashMap<>();
+    private final AtomicInteger acceptedSincePurge = new AtomicInteger();
+    private final LongAdder eventsApplied = new LongAdder();
+    private final LongAdder replaysIgnored = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param listener Receives every verified, first-seen event on a webhook worker thread
+     */
+    public WebhookServer(Consumer<LinkEvent> listener, String bindAddress, int port, String path,
+                         String secret, long maxClockSkewSeconds, int threads) {
+        this.listener = listener;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.path = path;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.maxClockSkewSeconds = maxClockSkewSeconds;
+        this.threads = Math.max(1, threads);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Start listening for events
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public void start() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "DiscordLink-Webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext(path, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * @return The bound port (useful when started on port 0), or -1 if not running
+     */
+    public int getPort() {
+        HttpServer current = server;
+        return current == null ? -1 : current.getAddress().getPort();
+    }
+
+    public long getEventsApplied() {
+        return eventsApplied.sum();
+    }
+
+    public long getReplaysIgnored() {
+        return replaysIgnored.sum();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                exchange.sendResponseHeaders(413, -1);
+                return;
+            }
+
+            String timestamp = exchange.getRequestHeaders().getFirst("X-Timestamp");
+            String signature = exchange.getRequestHeaders().getFirst("X-Signature");
+            byte[] verified = verifySignature(timestamp, signature, body);
+            if (verified == null) {
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+
+            LinkEvent event;
+            try {
+                event = gson.fromJson(new String(body, StandardCharsets.UTF_8), LinkEvent.class);
+            } catch (JsonSyntaxException e) {
+                event = null;
+            }
+            if (event == null || event.getXuid() == null || !isKnownType(event.getType())) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+
+            // The sender may retry an event we already applied, so a replay is acknowledged, not applied
+            if (!firstSeen(verified, Long.parseLong(timestamp.trim()))) {
+                replaysIgnored.increment();
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            }
+
+            listener.accept(event);
+            eventsApplied.increment();
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    private static boolean isKnownType(String type) {
+        return LinkEvent.TYPE_LINKED.equals(type) || LinkEvent.TYPE_UNLINKED.equals(type);
+    }
+
+    /**
+     * Remember a verified signature for the skew window
+     *
+     * @return false if the same signed event was already accepted
+     */
+    private boolean firstSeen(byte[] signature, long sentAt) {
+        if (seenSignatures.putIfAbsent(ByteBuffer.wrap(signature), sentAt) != null) {
+            return false;
+        }
+        if (acceptedSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            acceptedSincePurge.set(0);
+            // Older events fail the timestamp check, so their signatures are no longer needed
+            long oldest = System.currentTimeMillis() / 1000 - maxClockSkewSeconds;
+            seenSignatures.values().removeIf(signedAt -> signedAt < oldest);
+        }
+        return true;
+    }
+
+    /**
+     * @return The body, or null if it exceeds the size limit
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    /**
+     * @return The verified HMAC, or null if the timestamp or signature is invalid
+     */
+    private byte[] verifySignature(String timestamp, String signature, byte[] body) {
+        if (timestamp == null || signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return null;
+        }
+
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(timestamp.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (Math.abs(System.currentTimeMillis() / 1000 - sentAt) > maxClockSkewSeconds) {
+            return null;
+        }
+
+        Mac hmac = mac.get();
+        hmac.update(timestamp.trim().getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) '.');
+        byte[] expected = hmac.doFinal(body);
+
+        byte[] provided = parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+        return provided != null && MessageDigest.isEqual(expected, provided) ? expected : null;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static byte[] parseHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,21 @@
+package gg.pigraid.discordlink.commands;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread support, loaded from META-INF/versions/21 on Java 21+
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @param name Thread name prefix
+     * @return An executor starting one virtual thread per task
+     */
+    static ExecutorService newExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+}
@@ -0,0 +1,210 @@
+package gg.pigraid.discordlink.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Request coalescing in DiscordLinkServiceClient against a local AccountService stub
+ */
+class DiscordLinkServiceClientTest {
+    private static final String BASE_PATH = "/api/accounts";
+    private static final Pattern XUID_PATTERN = Pattern.compile("\\d{8,}");
+    private static final String XUID = "2535412345678901";
+    private static final int CALLERS = 64;
+    /** Long enough that every concurrent caller arrives while the first request is still in flight */
+    private static final int LATENCY_MILLIS = 200;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private volatile boolean bulkAvailable = true;
+    private volatile boolean bulkFailing;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private DiscordLinkServiceClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.createContext(BASE_PATH, this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        client = new DiscordLinkServiceClient("http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH, "test-key");
+    }
+
+    @AfterEach
+    void stopStub() {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsForSameXuidShareOneRequest() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<CompletableFuture<?>>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return client.getAccountByXuid(XUID);
+                }, callers));
+            }
+            start.countDown();
+
+            for (CompletableFuture<CompletableFuture<?>> call : calls) {
+                assertNotNull(call.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, requestCount("account-fetch"));
+    }
+
+    @Test
+    void lookupAfterCompletionStartsNewRequest() throws Exception {
+        assertNotNull(client.getAccountByXuid(XUID).get(5, TimeUnit.SECONDS));
+        assertNotNull(client.getAccountByXuid(XUID).get(5, TimeUnit.SECONDS));
+
+        // No cache is configured, so only in-flight requests are shared
+        assertEquals(2, requestCount("account-fetch"));
+    }
+
+    @Test
+    void batchedLookupsShareOneBulkRequest() throws Exception {
+        client.enableLookupBatching(1_000, CALLERS);
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            lookups.add(client.getAccountByXuid(Long.toString(2535400000000000L + i)));
+        }
+        for (CompletableFuture<?> lookup : lookups) {
+            assertNotNull(lookup.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, requestCount("bulk"));
+        assertEquals(0, requestCount("account-fetch"));
+    }
+
+    @Test
+    void batchedLookupsFallBackToSingleRequestsWithoutBulkEndpoint() throws Exception {
+        bulkAvailable = false;
+        client.enableLookupBatching(1_000, 4);
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lookups.add(client.getAccountByXuid(Long.toString(2535400000000000L + i)));
+        }
+        for (CompletableFuture<?> lookup : lookups) {
+            assertNotNull(lookup.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, requestCount("bulk"));
+        assertEquals(4, requestCount("account-fetch"));
+    }
+
+    @Test
+    void failedBulkRequestFailsBatchedLookups() {
+        bulkFailing = true;
+        client.enableLookupBatching(1_000, 4);
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lookups.add(client.getAccountByXuid(Long.toString(2535400000000000L + i)));
+        }
+        // An outage must not look like "no account"
+        for (CompletableFuture<?> lookup : lookups) {
+            assertThrows(ExecutionException.class, () -> lookup.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, requestCount("bulk"));
+        assertEquals(0, requestCount("account-fetch"));
+    }
+
+    private int requestCount(String endpoint) {
+        AtomicInteger count = requests.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            String endpoint = "/bulk".equals(path) ? "bulk" : "account-fetch";
+            requests.computeIfAbsent(endpoint, key -> new AtomicInteger()).incrementAndGet();
+
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if ("account-fetch".equals(endpoint)) {
+                respond(exchange, 200, account(path.substring(1)));
+            } else if (!bulkAvailable) {
+                respond(exchange, 404, "");
+            } else if (bulkFailing) {
+                respond(exchange, 500, "");
+            } else {
+                StringJoiner accounts = new StringJoiner(",", "{\"accounts\":{", "}}");
+                Matcher matcher = XUID_PATTERN.matcher(body);
+                while (matcher.find()) {
+                    accounts.add("\"" + matcher.group() + "\":" + account(matcher.group()));
+                }
+                respond(exchange, 200, accounts.toString());
+            }
+        }
+    }
+
+    private static String account(String xuid) {
+        return "{\"xuid\":\"" + xuid + "\",\"username\":\"Player" + xuid.substring(xuid.length() - 4) + "\"}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package gg.pigraid.discordlink.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandRateLimiterTest {
+
+    @Test
+    void playerLimitIsPerAction() {
+        CommandRateLimiter limiter = limiter(1, 2, 1_000, 1_000);
+
+        assertTrue(limiter.tryAcquire("2535400000000001", CommandRateLimiter.Action.LINK));
+        assertTrue(limiter.tryAcquire("2535400000000001", CommandRateLimiter.Action.LINK));
+        assertFalse(limiter.tryAcquire("2535400000000001", CommandRateLimiter.Action.LINK));
+
+        assertTrue(limiter.tryAcquire("2535400000000001", CommandRateLimiter.Action.STATUS));
+        assertTrue(limiter.tryAcquire("2535400000000002", CommandRateLimiter.Action.LINK));
+    }
+
+    @Test
+    void globalRejectionRefundsPlayerToken() throws InterruptedException {
+        // One token per player per minute, one proxy-wide token per second
+        CommandRateLimiter limiter = limiter(1, 1, 1, 1);
+
+        assertTrue(limiter.tryAcquire("2535400000000001", CommandRateLimiter.Action.LINK));
+        for (int i = 0; i < 3; i++) {
+            assertFalse(limiter.tryAcquire("2535400000000002", CommandRateLimiter.Action.LINK));
+        }
+
+        // Once the global bucket refills, the second player still has their only token
+        Thread.sleep(1_100);
+        assertTrue(limiter.tryAcquire("2535400000000002", CommandRateLimiter.Action.LINK));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedLimits() throws Exception {
+        int players = 200;
+        int playerBurst = 2;
+        int globalBurst = 100;
+        int threads = 16;
+        // Refill is negligible for the duration of the test: 1/min per player, 1/s proxy-wide
+        CommandRateLimiter limiter = limiter(1, playerBurst, 1, globalBurst);
+
+        AtomicIntegerArray granted = new AtomicIntegerArray(players);
+        LongAdder total = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long startNanos = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 50; round++) {
+                        for (int p = 0; p < players; p++) {
+                            int player = (p + offset * 13) % players;
+                            if (limiter.tryAcquire(Long.toString(2535400000000000L + player), CommandRateLimiter.Action.LINK)) {
+                                granted.incrementAndGet(player);
+                                total.increment();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+
+        for (int p = 0; p < players; p++) {
+            assertTrue(granted.get(p) <= playerBurst, "player " + p + " got " + granted.get(p));
+        }
+        // Player tokens (400) exceed the global burst, so refunds must leave exactly the global capacity used
+        long globalCapacity = globalBurst + elapsedSeconds + 1;
+        assertTrue(total.sum() <= globalCapacity, "granted " + total.sum() + " of " + globalCapacity);
+        assertTrue(total.sum() >= globalBurst, "granted only " + total.sum());
+        assertEquals(players, limiter.getTrackedPlayers());
+    }
+
+    private static CommandRateLimiter limiter(int perMinute, int burst, int globalPerSecond, int globalBurst) {
+        CommandRateLimiter.Limit limit = new CommandRateLimiter.Limit(perMinute, burst);
+        return new CommandRateLimiter(
+            Map.of(CommandRateLimiter.Action.LINK, limit,
+                CommandRateLimiter.Action.STATUS, limit,
+                CommandRateLimiter.Action.UNLINK, limit),
+            globalPerSecond, globalBurst);
+    }
+}
@@ -0,0 +1,95 @@
+package gg.pigraid.discordlink.commands;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gg.pigraid.discordlink.api.DiscordLinkServiceClient;
+import gg.pigraid.discordlink.api.LinkStateStore;
+import org.apache.logging.log4j.LogManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * /link status through the service client and link state store against a local AccountService stub
+ */
+class LinkCommandHandlerTest {
+    private static final String BASE_PATH = "/api/accounts";
+    private static final String LINKED_XUID = "2535412345678901";
+    private static final String UNLINKED_XUID = "2535412345678902";
+
+    private HttpServer server;
+    private Path stateFile;
+    private LinkStateStore stateStore;
+    private DiscordLinkServiceClient client;
+    private LinkCommandHandler handler;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(BASE_PATH, this::handle);
+        server.start();
+
+        stateFile = Files.createTempFile("link-state", ".bin");
+        stateStore = new LinkStateStore(stateFile, LogManager.getLogger(LinkCommandHandlerTest.class), 90, 1);
+        stateStore.open().get(5, TimeUnit.SECONDS);
+
+        client = new DiscordLinkServiceClient("http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH, "test-key");
+        client.setLinkStateStore(stateStore);
+        handler = new LinkCommandHandler(() -> client, () -> stateStore, () -> 300);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        client.close();
+        stateStore.close();
+        server.stop(0);
+        Files.deleteIfExists(stateFile);
+    }
+
+    @Test
+    void linkedLookupIsAnsweredAsLinkedFromStore() throws Exception {
+        assertNull(handler.knownStatus(LINKED_XUID));
+
+        LinkCommandHandler.Status looked = handler.lookupStatus(LINKED_XUID).get(5, TimeUnit.SECONDS);
+        assertEquals(LinkStateStore.State.LINKED, looked.getState());
+        assertEquals("pigraider", looked.getDiscordLink().getDiscordUsername());
+
+        LinkCommandHandler.Status known = handler.knownStatus(LINKED_XUID);
+        assertNotNull(known);
+        assertEquals(LinkStateStore.State.LINKED, known.getState());
+    }
+
+    @Test
+    void unlinkedLookupIsAnsweredAsNotLinkedFromStore() throws Exception {
+        assertEquals(LinkStateStore.State.NOT_LINKED,
+            handler.lookupStatus(UNLINKED_XUID).get(5, TimeUnit.SECONDS).getState());
+        assertEquals(LinkStateStore.State.NOT_LINKED, handler.knownStatus(UNLINKED_XUID).getState());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String xuid = exchange.getRequestURI().getPath().substring(BASE_PATH.length() + 1);
+            String settings = LINKED_XUID.equals(xuid)
+                ? "{\"discordLink\":{\"discordId\":\"112233445566778899\",\"discordUsername\":\"pigraider\"}}"
+                : "{}";
+            byte[] body = ("{\"xuid\":\"" + xuid + "\",\"settings\":" + settings + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package gg.pigraid.discordlink.webhook;
+
+import gg.pigraid.discordlink.api.models.LinkEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WebhookServer against a stand-in AccountService sender that signs events
+ * the same way: "sha256=" + hex HMAC-SHA256 of (timestamp + "." + body)
+ */
+class WebhookServerTest {
+    private static final String SECRET = "test-secret";
+    private static final String PATH = "/discordlink/events";
+    private static final long MAX_CLOCK_SKEW_SECONDS = 300;
+
+    private final ConcurrentLinkedQueue<LinkEvent> received = new ConcurrentLinkedQueue<>();
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+    private final HttpClient http = HttpClient.newBuilder().executor(clientExecutor).build();
+
+    private WebhookServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new WebhookServer(received::add, "127.0.0.1", 0, PATH, SECRET, MAX_CLOCK_SKEW_SECONDS, 4);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void signedEventIsApplied() throws Exception {
+        assertEquals(204, send(event("linked", "2535412345678901"), now(), SECRET).statusCode());
+
+        assertEquals(1, received.size());
+        assertEquals("2535412345678901", received.peek().getXuid());
+    }
+
+    @Test
+    void wrongSecretIsRejected() throws Exception {
+        assertEquals(401, send(event("linked", "2535412345678901"), now(), "other-secret").statusCode());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void eventOutsideClockSkewIsRejected() throws Exception {
+        long stale = now() - MAX_CLOCK_SKEW_SECONDS - 5;
+        assertEquals(401, send(event("linked", "2535412345678901"), stale, SECRET).statusCode());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void replayedEventIsAppliedOnce() throws Exception {
+        HttpRequest request = signedRequest(event("linked", "2535412345678901"), now(), SECRET);
+
+        assertEquals(204, http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(204, http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        assertEquals(1, received.size());
+        assertEquals(1, server.getReplaysIgnored());
+    }
+
+    @Test
+    void unknownEventTypeIsRejected() throws Exception {
+        assertEquals(400, send(event("renamed", "2535412345678901"), now(), SECRET).statusCode());
+        assertTrue(received.isEmpty());
+    }
+
+    private HttpResponse<Void> send(String body, long timestamp, String secret) throws Exception {
+        return http.send(signedRequest(body, timestamp, secret), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest signedRequest(String body, long timestamp, String secret) throws GeneralSecurityException {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + PATH))
+            .header("Content-Type", "application/json")
+            .header("X-Timestamp", Long.toString(timestamp))
+            .header("X-Signature", "sha256=" + sign(timestamp + "." + body, secret))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static String sign(String payload, String secret) throws GeneralSecurityException {
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static String event(String type, String xuid) {
+        return "{\"type\":\"" + type + "\",\"xuid\":\"" + xuid + "\",\"discordId\":\"112233445566778899\","
+            + "\"discordUsername\":\"pigraider\"}";
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+}